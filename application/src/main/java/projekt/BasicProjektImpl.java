@@ -196,6 +196,7 @@ public class BasicProjektImpl implements Projekt {
 
         // SimulationConfig
         SimulationConfig simulationConfig = new SimulationConfig(20);
+        simulationConfig.setWarmUp(true);
 
         //ProblemGroup
         ProblemGroup problemGroup = new ProblemGroupImpl(List.of(problemArchetype1, problemArchetype2), new ArrayList<>(raterFactoryMap1.keySet()));
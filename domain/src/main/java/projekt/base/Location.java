@@ -18,9 +18,21 @@ public final class Location implements Comparable<Location> {
     private final static Comparator<Location> COMPARATOR =
         Comparator.comparing(Location::getX).thenComparing(Location::getY);
 
+    /**
+     * The smallest coordinate of the locations cached by {@link #of(int, int)}.
+     */
+    private static final int CACHE_LOW = -128;
+
+    /**
+     * The amount of cached coordinates per axis, starting at {@link #CACHE_LOW}.
+     */
+    private static final int CACHE_SIZE = 256;
+
+    private static final Location[] CACHE = new Location[CACHE_SIZE * CACHE_SIZE];
+
     private final int x;
     private final int y;
-
+    private final int hash;
 
     /**
      * Instantiates a new {@link Location} object using {@code x} and {@code y} as coordinates.
@@ -31,6 +43,31 @@ public final class Location implements Comparable<Location> {
     public Location(int x, int y) {
         this.x = x;
         this.y = y;
+        this.hash = mix(x, y);
+    }
+
+    /**
+     * Returns a {@link Location} with the given coordinates. Locations whose coordinates are both in {@code [-128, 127]}
+     * are cached, so repeated calls return the same instance instead of allocating a new one.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return a {@link Location} with the given coordinates
+     */
+    public static Location of(int x, int y) {
+        int cacheX = x - CACHE_LOW;
+        int cacheY = y - CACHE_LOW;
+        if (cacheX < 0 || cacheX >= CACHE_SIZE || cacheY < 0 || cacheY >= CACHE_SIZE) {
+            return new Location(x, y);
+        }
+        // Locations are immutable, so a racing thread at worst creates a second equal instance
+        int index = cacheX * CACHE_SIZE + cacheY;
+        Location location = CACHE[index];
+        if (location == null) {
+            location = new Location(x, y);
+            CACHE[index] = location;
+        }
+        return location;
     }
 
     /**
@@ -51,6 +88,16 @@ public final class Location implements Comparable<Location> {
         return y;
     }
 
+    /**
+     * Returns both coordinates of this location packed into a single {@code long}, the x-coordinate in the upper and
+     * the y-coordinate in the lower 32 bits. Two locations are equal if and only if their packed coordinates are equal.
+     *
+     * @return the packed coordinates
+     */
+    public long toLong() {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
     /**
      * Adds the coordinates of this location and the other location and returns a new
      * {@link Location} object with the resulting coordinates.
@@ -88,7 +135,27 @@ public final class Location implements Comparable<Location> {
 
     @Override
     public int hashCode() {
-        return (Integer.toString(x) + Integer.toString(y)).hashCode();
+        return hash;
+    }
+
+    /**
+     * Computes the hash code of the given coordinates. {@code (x << 16) ^ y} is injective while both coordinates are in
+     * {@code [-32768, 32767]}, so such locations never share a hash code. The upper bits of coordinates outside of that
+     * range are multiplied with odd constants and added, so e.g. {@code (0, 65536)} and {@code (1, 0)} differ as well,
+     * but collisions are possible there. The result is mixed with the finalizer of MurmurHash3, which is a bijection,
+     * to spread neighboring locations over the buckets of hash based collections.
+     */
+    private static int mix(int x, int y) {
+        // Both upper parts are zero for coordinates in [-32768, 32767]
+        int upperX = (x + 32768) >>> 16;
+        int upperY = (y + 32768) >>> 16;
+        int h = ((x << 16) ^ y) + upperX * 0x9E3779B9 + upperY * 0x7FEB352D;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
     }
 
     @Override
@@ -3,6 +3,7 @@ package projekt.delivery.generator;
 import projekt.base.Location;
 import projekt.base.TickInterval;
 import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.IndexedRegion;
 import projekt.delivery.routing.VehicleManager;
 
 import java.util.*;
@@ -57,6 +58,18 @@ public class FridayOrderGenerator implements OrderGenerator {
             tmp.put(i, orders);
         }
 
+        // Group the neighborhoods by their connected component to detect unreachable orders in constant time
+        IndexedRegion graph = vehicleManager.getRegion().getIndexedRegion();
+        Map<Integer, List<Location>> neighborhoodsByComponent = new HashMap<>();
+        for (VehicleManager.OccupiedNeighborhood neighborhood : vehicleManager.getOccupiedNeighborhoods()) {
+            neighborhoodsByComponent
+                .computeIfAbsent(graph.getComponentId(neighborhood.getComponent()), id -> new ArrayList<>())
+                .add(neighborhood.getComponent().getLocation());
+        }
+        List<VehicleManager.OccupiedRestaurant> deliveringRestaurants = vehicleManager.getOccupiedRestaurants().stream()
+            .filter(restaurant -> neighborhoodsByComponent.containsKey(graph.getComponentId(restaurant.getComponent())))
+            .toList();
+
         for (int n = 0; n < orderCount; n++) {
 
             List<ConfirmedOrder> orders = new ArrayList<>();
@@ -83,6 +96,18 @@ public class FridayOrderGenerator implements OrderGenerator {
                     .findFirst()
                     .get();
 
+            // Orders between different components of the region can never be delivered, so draw a reachable pair if
+            // there is one
+            if (!graph.isConnected(restaurant.getComponent().getLocation(), location) && !deliveringRestaurants.isEmpty()) {
+                int component = graph.getComponentId(restaurant.getComponent());
+                if (!neighborhoodsByComponent.containsKey(component)) {
+                    restaurant = deliveringRestaurants.get(random.nextInt(deliveringRestaurants.size()));
+                    component = graph.getComponentId(restaurant.getComponent());
+                }
+                List<Location> reachable = neighborhoodsByComponent.get(component);
+                location = reachable.get(random.nextInt(reachable.size()));
+            }
+
             TickInterval deliveryIntervalTick = new TickInterval(tick, deliveryInterval + tick);
 
 
@@ -1,11 +1,11 @@
 package projekt.delivery.rating;
 
-import projekt.base.Location;
 import projekt.delivery.event.ArrivedAtNodeEvent;
 import projekt.delivery.event.DeliverOrderEvent;
 import projekt.delivery.event.Event;
 import projekt.delivery.event.OrderReceivedEvent;
 import projekt.delivery.routing.ConfirmedOrder;
+import projekt.delivery.routing.DistanceMatrix;
 import projekt.delivery.routing.PathCalculator;
 import projekt.delivery.routing.Region;
 import projekt.delivery.routing.VehicleManager;
@@ -28,6 +28,7 @@ public class TravelDistanceRater implements Rater {
     public static final RatingCriteria RATING_CRITERIA = RatingCriteria.TRAVEL_DISTANCE;
 
     private final Region region;
+    private final VehicleManager vehicleManager;
     private final PathCalculator pathCalculator;
     private final double factor;
     private double actualDistance = 0;
@@ -37,6 +38,7 @@ public class TravelDistanceRater implements Rater {
 
     private TravelDistanceRater(VehicleManager vehicleManager, double factor) {
         region = vehicleManager.getRegion();
+        this.vehicleManager = vehicleManager;
         pathCalculator = vehicleManager.getPathCalculator();
         this.factor = factor;
     }
@@ -75,7 +77,7 @@ public class TravelDistanceRater implements Rater {
                         }
                     }
 
-                    double distance = getLongestDistance(deliveredOrder.getOrder().getRestaurant().getComponent().getLocation(), pathCalculator.getPath(deliveredOrder.getOrder().getRestaurant().getComponent(), deliveredOrder.getNode()));
+                    double distance = getLongestDistance(deliveredOrder.getOrder().getRestaurant().getComponent(), deliveredOrder.getNode());
                     if (oldValue) {
                         //actualDistance -= distance * factor; //wohl doch nicht analog zur 8.2, weder mit noch ohne factor
                     }
@@ -100,7 +102,7 @@ public class TravelDistanceRater implements Rater {
                 }
 
                 if(addValue){
-                    double distance = getLongestDistance(orderRecieved.getOrder().getRestaurant().getComponent().getLocation(), pathCalculator.getPath(orderRecieved.getOrder().getRestaurant().getComponent(), region.getNode(orderRecieved.getOrder().getLocation())));
+                    double distance = getLongestDistance(orderRecieved.getOrder().getRestaurant().getComponent(), region.getNode(orderRecieved.getOrder().getLocation()));
                     //worstDistance += distance;
                     //actualDistance += distance * factor; //wohl doch nicht analog zur 8.2, weder mit noch ohne factor
                     recievedOrders.add(orderRecieved.getOrder());
@@ -109,22 +111,12 @@ public class TravelDistanceRater implements Rater {
         }
     }
 
-    private double getLongestDistance(Location location, Deque<Region.Node> nodes){
-        double distance = 0;
-
-        if(nodes.getFirst() != region.getNode(location)){
-            nodes.addFirst(region.getNode(location));
-        }
-        Region.Node[] tmp = nodes.toArray(new Region.Node[0]);
-
-        for(int i = 0; i < nodes.size() - 1; i++){
-
-            if(region.getEdge(tmp[i], tmp[i+1]) != null){
-                distance += region.getEdge(tmp[i], tmp[i+1]).getDuration();
-            }
+    private double getLongestDistance(Region.Node restaurant, Region.Node destination) {
+        DistanceMatrix distanceMatrix = vehicleManager.getDistanceMatrix();
+        if (distanceMatrix == null || !distanceMatrix.contains(restaurant, destination)) {
+            return pathCalculator.getDistance(restaurant, destination) * 2;
         }
-
-        return distance * 2;
+        return distanceMatrix.getDistance(restaurant, destination) * 2;
     }
 
     public void onTickOld(List<Event> events, long tick) {
@@ -0,0 +1,111 @@
+package projekt.delivery.routing;
+
+import projekt.base.DistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path between two nodes using A*.<p>
+ *
+ * The {@link DistanceCalculator} of the searched {@link Region} is used as heuristic. Since the duration of every
+ * {@link Region.Edge} is the rounded up distance between its nodes, the distance between two {@link Location}s is a
+ * lower bound of the duration of every path between them. Paths and single pair distances are read from the same
+ * goal directed search. Searches for all paths to a node are performed by {@link IndexedDijkstraPathCalculator}, as
+ * there is no single goal to direct the search to. So are all searches on {@link Region}s whose durations have been
+ * decreased below that bound, see {@link IndexedRegion#isGeometricLowerBound()}.
+ */
+public class AStarPathCalculator extends IndexedDijkstraPathCalculator {
+
+    /**
+     * Tolerance for rounding errors of the {@link DistanceCalculator} that would otherwise make the heuristic overestimate.
+     */
+    private static final double EPSILON = 1e-9;
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        Region region = end.getRegion();
+        IndexedRegion graph = region.getIndexedRegion();
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+
+        if (source == target) {
+            return new ArrayDeque<>();
+        }
+        if (!graph.isConnected(source, target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        if (!graph.isGeometricLowerBound()) {
+            return super.getPath(start, end);
+        }
+        return search(region, graph, start, end).walkToSource(graph, target);
+    }
+
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        Region region = end.getRegion();
+        IndexedRegion graph = region.getIndexedRegion();
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+
+        if (source == target) {
+            return 0;
+        }
+        if (!graph.isConnected(source, target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        if (!graph.isGeometricLowerBound()) {
+            return super.getDistance(start, end);
+        }
+        return search(region, graph, start, end).getDistance(target);
+    }
+
+    /**
+     * Runs A* from the given end towards the given start, so the predecessors lead from start to end.
+     * @param region The searched {@link Region}.
+     * @param graph The {@link IndexedRegion} of the searched {@link Region}.
+     * @param start The start of the path, which is the goal of the search.
+     * @param end The end of the path, which is the source of the search.
+     * @return The workspace of the search, in which the start is reached with its final distance.
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    private static DijkstraWorkspace search(Region region, IndexedRegion graph, Region.Node start, Region.Node end) {
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+        DistanceCalculator distanceCalculator = region.getDistanceCalculator();
+        Location goal = start.getLocation();
+        DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+        workspace.improve(source, 0, -1);
+        workspace.queue.push(source, estimate(distanceCalculator, end.getLocation(), goal));
+
+        while (!workspace.queue.isEmpty()) {
+            int u = workspace.queue.poll();
+            if (u == target) {
+                return workspace;
+            }
+            workspace.settle(u);
+            long distance = workspace.getDistance(u);
+            for (int arc = graph.getFirstArc(u), last = graph.getFirstArc(u + 1); arc < last; arc++) {
+                int v = graph.getArcTarget(arc);
+                long candidate = distance + graph.getArcDuration(arc);
+                if (!workspace.isSettled(v) && workspace.improve(v, candidate, u)) {
+                    workspace.queue.push(v, candidate + estimate(distanceCalculator, graph.getNode(v).getLocation(), goal));
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+    }
+
+    /**
+     * Estimates the duration of the shortest path between the given {@link Location}s without overestimating it.
+     * @param distanceCalculator The {@link DistanceCalculator} of the searched {@link Region}.
+     * @param a The first {@link Location}.
+     * @param b The second {@link Location}.
+     * @return A lower bound of the duration of every path between the given {@link Location}s.
+     */
+    private static long estimate(DistanceCalculator distanceCalculator, Location a, Location b) {
+        return Math.max(0, (long) Math.floor(distanceCalculator.calculateDistance(a, b) - EPSILON));
+    }
+}
@@ -13,7 +13,7 @@ import java.util.Map;
  */
 abstract class AbstractOccupied<C extends Region.Component<? super C>> implements VehicleManager.Occupied<C> {
 
-    protected final C component;
+    protected C component;
     protected final VehicleManager vehicleManager;
     protected final Map<VehicleImpl, VehicleStats> vehicles = new HashMap<>();
     private final Collection<Vehicle> unmodifiableVehicles =
@@ -0,0 +1,179 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A {@link PathCalculator} that answers all queries by walking a precomputed next hop matrix.<p>
+ *
+ * The matrix of a {@link Region} is computed once with one Dijkstra search per node and stored in a memory-mapped file
+ * in the given directory. The file is named after a fingerprint of the {@link Region}, so later runs with the same
+ * {@link Region} reuse it instead of computing it again. The matrices of the most recently used {@link Region} are
+ * kept, so an {@link AllPairsPathCalculator} should not be shared by {@link VehicleManager}s of different
+ * {@link Region}s.<p>
+ *
+ * Changing the duration of an edge changes the fingerprint, so the matrices are computed again on the next query and
+ * the file of the replaced matrices is deleted. For {@link Region}s with frequently changing durations a
+ * {@link CachedPathCalculator} is the better choice.<p>
+ *
+ * The file needs 8 bytes per pair of nodes, e.g. 8 MB for 1,000 nodes and 800 MB for 10,000 nodes. While a file is
+ * computed, the same space is needed for its temporary file. Files of other {@link Region}s are never deleted, so the
+ * directory has to be cleaned up manually. {@link Region}s with more than 20,000 nodes, whose file would exceed 3 GB,
+ * are searched by {@link IndexedDijkstraPathCalculator} instead.
+ */
+public class AllPairsPathCalculator extends IndexedDijkstraPathCalculator {
+
+    /**
+     * The directory the matrices are stored in if no other directory is given.
+     */
+    public static final Path DEFAULT_DIRECTORY = Path.of(System.getProperty("java.io.tmpdir"), "projekt-all-pairs");
+
+    private final Path directory;
+    private volatile @Nullable AllPairsTable table;
+
+    /**
+     * Creates a new {@link AllPairsPathCalculator} that stores its matrices in {@link #DEFAULT_DIRECTORY}.
+     */
+    public AllPairsPathCalculator() {
+        this(DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Creates a new {@link AllPairsPathCalculator} that stores its matrices in the given directory.
+     * @param directory The directory to store the matrices in. It is created if it does not exist.
+     */
+    public AllPairsPathCalculator(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the directory the matrices are stored in.
+     * @return The directory the matrices are stored in.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Loads or computes the matrices of the given {@link Region} if they have not been loaded yet.
+     * @param region The {@link Region} to preprocess.
+     */
+    @Override
+    public void preprocess(Region region) {
+        IndexedRegion graph = region.getIndexedRegion();
+        if (graph.getNodeCount() <= AllPairsTable.MAX_NODE_COUNT) {
+            getTable(graph);
+        }
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        if (graph.getNodeCount() > AllPairsTable.MAX_NODE_COUNT) {
+            return super.getPath(start, end);
+        }
+        int target = graph.requireIndexOf(end);
+        int node = graph.requireIndexOf(start);
+
+        AllPairsTable table = getTable(graph);
+        if (table.getNextHop(node, target) == AllPairsTable.UNREACHABLE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return walk(graph, table, node, target);
+    }
+
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        if (graph.getNodeCount() > AllPairsTable.MAX_NODE_COUNT) {
+            return super.getDistance(start, end);
+        }
+        int distance = getTable(graph).getDistance(graph.requireIndexOf(start), graph.requireIndexOf(end));
+        if (distance == AllPairsTable.UNREACHABLE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    @Override
+    public long[][] getDistanceTable(List<? extends Region.Node> sources, List<? extends Region.Node> targets) {
+        if (targets.isEmpty() || targets.get(0).getRegion().getIndexedRegion().getNodeCount() > AllPairsTable.MAX_NODE_COUNT) {
+            return super.getDistanceTable(sources, targets);
+        }
+        IndexedRegion graph = targets.get(0).getRegion().getIndexedRegion();
+        AllPairsTable table = getTable(graph);
+        long[][] distances = new long[sources.size()][targets.size()];
+        for (int j = 0; j < targets.size(); j++) {
+            int target = graph.requireIndexOf(targets.get(j));
+            for (int i = 0; i < sources.size(); i++) {
+                int distance = table.getDistance(graph.requireIndexOf(sources.get(i)), target);
+                distances[i][j] = distance == AllPairsTable.UNREACHABLE ? ShortestPathTree.UNREACHABLE : distance;
+            }
+        }
+        return distances;
+    }
+
+    @Override
+    public ShortestPathTree getShortestPathTree(Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        if (graph.getNodeCount() > AllPairsTable.MAX_NODE_COUNT) {
+            return super.getShortestPathTree(end);
+        }
+        int target = graph.requireIndexOf(end);
+
+        AllPairsTable table = getTable(graph);
+        int[] nextHops = new int[graph.getNodeCount()];
+        long[] distances = new long[graph.getNodeCount()];
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            int distance = table.getDistance(node, target);
+            nextHops[node] = node == target ? -1 : table.getNextHop(node, target);
+            distances[node] = distance == AllPairsTable.UNREACHABLE ? ShortestPathTree.UNREACHABLE : distance;
+        }
+        return new ShortestPathTree(graph, target, nextHops, distances);
+    }
+
+    /**
+     * Follows the next hops from the given node to the given target.
+     * @return The nodes of the path, excluding the given node and including the target.
+     */
+    private static Deque<Region.Node> walk(IndexedRegion graph, AllPairsTable table, int node, int target) {
+        Deque<Region.Node> path = new ArrayDeque<>();
+        while (node != target) {
+            node = table.getNextHop(node, target);
+            path.addLast(graph.getNode(node));
+        }
+        return path;
+    }
+
+    private AllPairsTable getTable(IndexedRegion graph) {
+        AllPairsTable current = table;
+        if (current == null || current.getGraph() != graph) {
+            synchronized (this) {
+                current = table;
+                if (current == null || current.getGraph() != graph) {
+                    @Nullable AllPairsTable previous = current;
+                    current = AllPairsTable.load(graph, directory);
+                    table = current;
+                    // A table of a snapshot whose durations have changed since will not be loaded again
+                    if (previous != null && isSuccessor(previous.getGraph(), graph)) {
+                        previous.delete();
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private static boolean isSuccessor(IndexedRegion graph, IndexedRegion successor) {
+        for (@Nullable IndexedRegion current = graph.getSuccessor(); current != null; current = current.getSuccessor()) {
+            if (current == successor) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
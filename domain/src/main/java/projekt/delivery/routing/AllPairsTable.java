@@ -0,0 +1,287 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * A precomputed next hop and distance matrix of an {@link IndexedRegion} that is stored in a memory-mapped file.<p>
+ *
+ * The matrix is stored target by target: the entries {@code [t * n, (t + 1) * n)} contain, for every node {@code s},
+ * the id of the next node on the shortest path from {@code s} to {@code t} and the duration of that path. Each row is
+ * the shortest path tree of a Dijkstra search from {@code t}, so walking the next hops always follows one consistent
+ * shortest path. Unreachable nodes are stored as {@link #UNREACHABLE}.<p>
+ *
+ * The file is named after a fingerprint of the graph, so tables of the same {@link Region} are reused across runs.
+ * {@link AllPairsTable}s are read-only after construction and can be used by multiple threads at once.
+ */
+final class AllPairsTable {
+
+    /**
+     * The next hop and distance stored for unreachable nodes.
+     */
+    static final int UNREACHABLE = -1;
+
+    /**
+     * The maximum amount of nodes of a graph, so that every matrix fits into a single buffer.
+     */
+    static final int MAX_NODE_COUNT = 20_000;
+
+    private static final long MAGIC = 0x50524F4A41505354L;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int COMPLETE_OFFSET = 24;
+
+    private final IndexedRegion graph;
+    private final Path file;
+    private final int nodeCount;
+    private final IntBuffer nextHops;
+    private final IntBuffer distances;
+
+    private AllPairsTable(IndexedRegion graph, Path file, IntBuffer nextHops, IntBuffer distances) {
+        this.graph = graph;
+        this.file = file;
+        this.nodeCount = graph.getNodeCount();
+        this.nextHops = nextHops;
+        this.distances = distances;
+    }
+
+    /**
+     * Loads the table of the given graph from the given directory or computes and stores it if no complete table of
+     * the graph exists yet.<p>
+     *
+     * A missing table is computed into a temporary file while holding an exclusive lock on a lock file next to it, so
+     * concurrent runs compute every table only once. The complete file is then moved into place atomically, so a table
+     * file is never seen partially written.
+     *
+     * @param graph The graph to load the table of.
+     * @param directory The directory the table files are stored in.
+     * @return The loaded table.
+     * @throws IllegalArgumentException If the graph has more than {@link #MAX_NODE_COUNT} nodes or a shortest path is
+     *                                  too long to be stored.
+     * @throws UncheckedIOException If the file could not be read or written.
+     */
+    static AllPairsTable load(IndexedRegion graph, Path directory) {
+        int nodeCount = graph.getNodeCount();
+        if (nodeCount > MAX_NODE_COUNT) {
+            throw new IllegalArgumentException("Graphs with more than %d nodes are not supported".formatted(MAX_NODE_COUNT));
+        }
+        long fingerprint = fingerprint(graph);
+        String name = "all-pairs-%016x".formatted(fingerprint);
+        Path file = directory.resolve(name + ".bin");
+
+        try {
+            Files.createDirectories(directory);
+            @Nullable AllPairsTable table = open(graph, file, fingerprint);
+            if (table != null) {
+                return table;
+            }
+            // File locks are held by the whole JVM, so threads of the same JVM have to wait for each other separately
+            synchronized (AllPairsTable.class) {
+                try (FileChannel lockChannel = FileChannel.open(directory.resolve(name + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    FileLock lock = lockChannel.lock();
+                    try {
+                        // Another run may have stored the table while this one was waiting for the lock
+                        table = open(graph, file, fingerprint);
+                        return table != null ? table : build(graph, directory, file, name, fingerprint);
+                    } finally {
+                        lock.release();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps the given table file if it is a complete table of the given graph.
+     * @return The mapped table or null if the file does not exist or does not contain a complete table of the graph.
+     */
+    private static @Nullable AllPairsTable open(IndexedRegion graph, Path file, long fingerprint) throws IOException {
+        int nodeCount = graph.getNodeCount();
+        long matrixSize = (long) nodeCount * nodeCount * Integer.BYTES;
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_SIZE + 2 * matrixSize) {
+                return null;
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            boolean complete = header.getLong(0) == MAGIC
+                && header.getInt(8) == VERSION
+                && header.getInt(12) == nodeCount
+                && header.getLong(16) == fingerprint
+                && header.getInt(COMPLETE_OFFSET) == 1;
+            if (!complete) {
+                return null;
+            }
+            return new AllPairsTable(graph, file,
+                map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, matrixSize),
+                map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE + matrixSize, matrixSize));
+        }
+    }
+
+    /**
+     * Computes the table of the given graph into a temporary file and moves it to the given file once it is complete.
+     * The temporary file is deleted if the computation fails.
+     */
+    private static AllPairsTable build(
+        IndexedRegion graph,
+        Path directory,
+        Path file,
+        String name,
+        long fingerprint
+    ) throws IOException {
+        int nodeCount = graph.getNodeCount();
+        long matrixSize = (long) nodeCount * nodeCount * Integer.BYTES;
+        Path temporary = Files.createTempFile(directory, name + "-", ".tmp");
+        boolean moved = false;
+        try {
+            AllPairsTable table;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                header.order(ByteOrder.LITTLE_ENDIAN);
+                table = new AllPairsTable(graph, file,
+                    map(channel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE, matrixSize),
+                    map(channel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE + matrixSize, matrixSize));
+                table.compute();
+                header.putLong(0, MAGIC);
+                header.putInt(8, VERSION);
+                header.putInt(12, nodeCount);
+                header.putLong(16, fingerprint);
+                header.putInt(COMPLETE_OFFSET, 1);
+                channel.force(true);
+            }
+            // The mappings stay valid after the file has been moved
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
+            return table;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    /**
+     * Deletes the file of this table and its lock file, e.g. because the durations of its graph have changed and the
+     * table will not be used again. The table itself stays readable until it is garbage collected. Failures are
+     * ignored, since some platforms do not allow deleting a mapped file.
+     */
+    void delete() {
+        try {
+            Files.deleteIfExists(file);
+            String name = file.getFileName().toString();
+            Files.deleteIfExists(file.resolveSibling(name.substring(0, name.length() - ".bin".length()) + ".lock"));
+        } catch (IOException | SecurityException ignored) {
+            // The file is only a cache, so leaving it behind does no harm
+        }
+    }
+
+    /**
+     * Returns the graph this table belongs to.
+     * @return The graph this table belongs to.
+     */
+    IndexedRegion getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the id of the node following the given node on the shortest path to the given target.
+     * @param node The id of the node.
+     * @param target The id of the target node.
+     * @return The id of the next node, the target itself if the given node is the target or {@link #UNREACHABLE}.
+     */
+    int getNextHop(int node, int target) {
+        return nextHops.get(target * nodeCount + node);
+    }
+
+    /**
+     * Returns the duration of the shortest path from the given node to the given target.
+     * @param node The id of the node.
+     * @param target The id of the target node.
+     * @return The duration of the shortest path or {@link #UNREACHABLE}.
+     */
+    int getDistance(int node, int target) {
+        return distances.get(target * nodeCount + node);
+    }
+
+    /**
+     * Fills both matrices with one Dijkstra search per target. The searches run in parallel on the common
+     * {@link java.util.concurrent.ForkJoinPool} and each writes its own row.
+     */
+    private void compute() {
+        IntStream.range(0, nodeCount).parallel().forEach(target -> {
+            DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, nodeCount);
+            workspace.run(graph, target, -1);
+
+            IntBuffer nextHopRow = nextHops.slice(target * nodeCount, nodeCount);
+            IntBuffer distanceRow = distances.slice(target * nodeCount, nodeCount);
+            for (int node = 0; node < nodeCount; node++) {
+                long distance = workspace.getDistance(node);
+                if (distance == DijkstraWorkspace.INFINITY) {
+                    nextHopRow.put(node, UNREACHABLE);
+                    distanceRow.put(node, UNREACHABLE);
+                } else if (distance > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("The duration of a shortest path is too long to be stored");
+                } else {
+                    nextHopRow.put(node, node == target ? target : workspace.getPredecessor(node));
+                    distanceRow.put(node, (int) distance);
+                }
+            }
+        });
+    }
+
+    private static IntBuffer map(
+        FileChannel channel,
+        FileChannel.MapMode mode,
+        long position,
+        long size
+    ) throws IOException {
+        return channel.map(mode, position, size).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Returns a hash of the locations and arcs of the given graph. Node ids only depend on the locations, so graphs
+     * with the same fingerprint have the same shortest paths.
+     */
+    private static long fingerprint(IndexedRegion graph) {
+        long hash = mix(graph.getNodeCount());
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            hash = mix(hash ^ graph.getNode(node).getLocation().getX());
+            hash = mix(hash ^ graph.getNode(node).getLocation().getY());
+            hash = mix(hash ^ graph.getFirstArc(node + 1));
+        }
+        for (int arc = 0; arc < graph.getArcCount(); arc++) {
+            hash = mix(hash ^ graph.getArcTarget(arc));
+            hash = mix(hash ^ graph.getArcDuration(arc));
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,111 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path between two nodes using a bidirectional Dijkstra search.<p>
+ *
+ * One search starts at the end and one at the start of the path. The search with the smaller tentative distance is
+ * advanced until the sum of both tentative distances exceeds the shortest path found so far. On sparse road graphs this
+ * settles roughly half the nodes a unidirectional search settles. Paths and single pair distances are read from the
+ * same search. Searches for all paths to a node are performed by {@link IndexedDijkstraPathCalculator}.
+ */
+public class BidirectionalDijkstraPathCalculator extends IndexedDijkstraPathCalculator {
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+
+        if (source == target) {
+            return new ArrayDeque<>();
+        }
+        Meeting meeting = search(graph, start, end);
+
+        // The search from the start leads back from the meeting node to the start, so it has to be reversed
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int node = meeting.node(); node != target; node = meeting.fromStart().getPredecessor(node)) {
+            path.addFirst(graph.getNode(node));
+        }
+        path.addAll(meeting.fromEnd().walkToSource(graph, meeting.node()));
+        return path;
+    }
+
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+
+        if (graph.requireIndexOf(end) == graph.requireIndexOf(start)) {
+            return 0;
+        }
+        return search(graph, start, end).distance();
+    }
+
+    /**
+     * Runs both searches until the shortest path from the given start to the given end is known.
+     * @param graph The {@link IndexedRegion} of the searched {@link Region}.
+     * @param start The start of the path.
+     * @param end The end of the path.
+     * @return The node at which the shortest path was found.
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    private static Meeting search(IndexedRegion graph, Region.Node start, Region.Node end) {
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+        if (!graph.isConnected(source, target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+
+        DijkstraWorkspace fromEnd = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+        DijkstraWorkspace fromStart = DijkstraWorkspace.acquire(1, graph.getNodeCount());
+        fromEnd.improve(source, 0, -1);
+        fromEnd.queue.push(source, 0);
+        fromStart.improve(target, 0, -1);
+        fromStart.queue.push(target, 0);
+
+        long best = DijkstraWorkspace.INFINITY;
+        int meeting = -1;
+
+        while (!fromEnd.queue.isEmpty() && !fromStart.queue.isEmpty()) {
+            long endKey = fromEnd.queue.peekKey();
+            long startKey = fromStart.queue.peekKey();
+            if (endKey + startKey >= best) {
+                break;
+            }
+
+            DijkstraWorkspace forward = endKey <= startKey ? fromEnd : fromStart;
+            DijkstraWorkspace backward = forward == fromEnd ? fromStart : fromEnd;
+
+            int u = forward.queue.poll();
+            forward.settle(u);
+            long distance = forward.getDistance(u);
+            for (int arc = graph.getFirstArc(u), last = graph.getFirstArc(u + 1); arc < last; arc++) {
+                int v = graph.getArcTarget(arc);
+                long candidate = distance + graph.getArcDuration(arc);
+                if (!forward.isSettled(v) && forward.improve(v, candidate, u)) {
+                    forward.queue.push(v, candidate);
+                }
+                if (backward.isReached(v) && candidate + backward.getDistance(v) < best) {
+                    best = candidate + backward.getDistance(v);
+                    meeting = v;
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return new Meeting(meeting, best, fromEnd, fromStart);
+    }
+
+    /**
+     * The result of a bidirectional search.
+     * @param node The node at which both searches met on the shortest path.
+     * @param distance The duration of the shortest path.
+     * @param fromEnd The workspace of the search from the end.
+     * @param fromStart The workspace of the search from the start.
+     */
+    private record Meeting(int node, long distance, DijkstraWorkspace fromEnd, DijkstraWorkspace fromStart) {}
+}
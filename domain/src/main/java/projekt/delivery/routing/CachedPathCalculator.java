@@ -2,17 +2,98 @@ package projekt.delivery.routing;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * A {@link PathCalculator} that is based on another {@link PathCalculator} and caches its result for later use.
+ * A {@link PathCalculator} that is based on another {@link PathCalculator} and caches its result for later use.<p>
+ *
+ * The results are cached as {@link ShortestPathTree}s, which need linear memory per end node. Paths are materialized
+ * on every request, so callers are free to modify the returned {@link Deque}s.<p>
+ *
+ * The cache is either bounded by the amount of cached {@link ShortestPathTree}s or, if created with
+ * {@link #boundedByMemory(PathCalculator, long, boolean)}, by their estimated size in bytes. In the latter mode,
+ * evicted {@link ShortestPathTree}s can optionally be kept as {@link SoftReference}s, so they are reused until the
+ * garbage collector needs their memory.<p>
+ *
+ * A {@link CachedPathCalculator} is thread-safe, so it can be shared by multiple simulations running in parallel on
+ * the same {@link Region}. The cache is split into segments that are locked independently, each evicting its least
+ * recently used entries when it is full. Concurrent requests for the same end node that is not cached yet or whose
+ * cached {@link ShortestPathTree} is outdated only calculate or repair the {@link ShortestPathTree} once; all other
+ * requests wait for its result.<p>
+ *
+ * If the duration of an edge changes, see {@link Region#updateDuration(Region.Edge, long)}, cached
+ * {@link ShortestPathTree}s are not discarded. They are repaired on their next request, which only recomputes the
+ * nodes whose shortest path is affected by the change. The same applies to edited copies of the {@link Region} with
+ * the same nodes, e.g. after a street was added or removed: cached trees are moved to the copy and only the nodes of
+ * trees whose shortest paths are affected by the edited streets are recomputed. Trees that do not contain a removed
+ * street and are not improved by an added street are shared without copying.
  */
 public class CachedPathCalculator implements PathCalculator {
 
+    /**
+     * The size of the cache if no other size is given.
+     */
+    public static final int DEFAULT_SIZE = 1024;
+
+    /**
+     * The minimum amount of entries a segment holds, so small caches are not split too much.
+     */
+    private static final int MIN_SEGMENT_SIZE = 8;
+
+    /**
+     * The minimum amount of bytes a segment of a memory bounded cache holds.
+     */
+    private static final long MIN_SEGMENT_BYTES = 1 << 20;
+
+    /**
+     * The maximum amount of segments.
+     */
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * The maximum amount of changed edges a cached {@link ShortestPathTree} is repaired for. Trees that missed more
+     * changes are calculated again, which is cheaper than repairing them one change at a time.
+     */
+    private static final int MAX_REPAIRED_CHANGES = 32;
+
     private final PathCalculator delegate;
-    private final Map<Region.Node, Map<Region.Node, Deque<Region.Node>>> cache = new HashMap<>();
     private final int size;
-    private final Set<Region.Node> accessOrder;
+    private final long memoryBudget;
+    private final boolean softReferences;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder repairs = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+
+    /**
+     * The changes between the last two different snapshots of a {@link Region} seen by this calculator, shared by all
+     * cached trees migrating between them.
+     */
+    private volatile @Nullable RegionDiff lastDiff;
+
+    private CachedPathCalculator(PathCalculator delegate, int size, long memoryBudget, boolean softReferences) {
+        this.delegate = delegate;
+        this.size = size;
+        this.memoryBudget = memoryBudget;
+        this.softReferences = softReferences;
+
+        long capacity = memoryBudget > 0 ? memoryBudget : size;
+        long minSegmentCapacity = memoryBudget > 0 ? MIN_SEGMENT_BYTES : MIN_SEGMENT_SIZE;
+        int segmentCount = (int) Math.min(MAX_SEGMENTS, Long.highestOneBit(Math.max(1, capacity / minSegmentCapacity)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // Distribute the capacity over all segments, so their capacities add up to the capacity of the cache
+            segments[i] = new Segment(capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0));
+        }
+    }
 
     /**
      * Creates a new {@link CachedPathCalculator}.
@@ -20,9 +101,10 @@ public class CachedPathCalculator implements PathCalculator {
      * @param size The size of the cache.
      */
     public CachedPathCalculator(PathCalculator delegate, int size) {
-        this.delegate = delegate;
-        this.size = size;
-        this.accessOrder = new LinkedHashSet<>(size);
+        this(delegate, size, 0, false);
+        if (size <= 0) {
+            throw new IllegalArgumentException("The size of the cache must be positive");
+        }
     }
 
     /**
@@ -31,40 +113,350 @@ public class CachedPathCalculator implements PathCalculator {
      * @param delegate The {@link PathCalculator} this {@link CachedPathCalculator} uses to calculate the paths.
      */
     public CachedPathCalculator(PathCalculator delegate) {
-        this(delegate, 1024);
+        this(delegate, DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new {@link CachedPathCalculator} whose cache is bounded by the estimated size of the cached
+     * {@link ShortestPathTree}s instead of their amount.
+     * @param delegate The {@link PathCalculator} the created {@link CachedPathCalculator} uses to calculate the paths.
+     * @param memoryBudget The maximum estimated size of all cached {@link ShortestPathTree}s in bytes.
+     * @param softReferences Whether evicted {@link ShortestPathTree}s are kept as {@link SoftReference}s.
+     * @return The created {@link CachedPathCalculator}.
+     */
+    public static CachedPathCalculator boundedByMemory(PathCalculator delegate, long memoryBudget, boolean softReferences) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("The memory budget of the cache must be positive");
+        }
+        return new CachedPathCalculator(delegate, 0, memoryBudget, softReferences);
     }
 
     @Override
     public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
-        return getAllPathsTo(end).get(start);
+        return getShortestPathTree(end).getPath(start);
+    }
+
+    @Override
+    public Route getRoute(Region.Node start, Region.Node end) {
+        return getShortestPathTree(end).getRoute(start);
+    }
+
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        long distance = getShortestPathTree(end).getDistance(start);
+        if (distance == ShortestPathTree.UNREACHABLE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
     }
 
     public PathCalculator getDelegate() {
         return delegate;
     }
 
+    /**
+     * Returns the maximum amount of {@link ShortestPathTree}s this {@link CachedPathCalculator} caches.
+     * @return The size of the cache or 0 if it is bounded by memory.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum estimated size of all {@link ShortestPathTree}s this {@link CachedPathCalculator} caches.
+     * @return The memory budget in bytes or 0 if the cache is bounded by the amount of entries.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Returns true if evicted {@link ShortestPathTree}s are kept as {@link SoftReference}s.
+     * @return True if evicted {@link ShortestPathTree}s are kept as {@link SoftReference}s.
+     */
+    public boolean usesSoftReferences() {
+        return softReferences;
+    }
+
     @Override
     public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
-        @Nullable Map<Region.Node, Deque<Region.Node>> path = cache.get(end);
-        if (path != null) {
-            return path;
+        return getShortestPathTree(end).asMap();
+    }
+
+    @Override
+    public ShortestPathTree getShortestPathTree(Region.Node end) {
+        Segment segment = segmentFor(end);
+
+        while (true) {
+            IndexedRegion graph = end.getRegion().getIndexedRegion();
+            Entry entry;
+            @Nullable ShortestPathTree stale = null;
+            boolean load = false;
+
+            synchronized (segment) {
+                segment.purgeSpilled();
+                entry = segment.entries.get(end);
+                @Nullable ShortestPathTree cached;
+                if (entry != null) {
+                    cached = entry.future.isDone() ? entry.future.getNow(null) : null;
+                } else {
+                    cached = segment.unspill(end);
+                    if (cached != null && cached.getGraph() == graph) {
+                        entry = new Entry();
+                        entry.future.complete(cached);
+                        segment.insert(end, entry, weigh(cached));
+                    }
+                }
+                if (entry == null || cached != null && cached.getGraph() != graph) {
+                    // Concurrent requests wait for this request to calculate or refresh the tree
+                    if (entry != null) {
+                        segment.entries.remove(end);
+                        segment.weight -= entry.weight;
+                    }
+                    stale = cached;
+                    entry = new Entry();
+                    segment.entries.put(end, entry);
+                    load = true;
+                }
+            }
+
+            if (load) {
+                return load(segment, end, entry, graph, stale);
+            }
+
+            ShortestPathTree tree;
+            try {
+                tree = entry.future.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            // A tree that became stale while waiting for it is refreshed by the next iteration
+            if (tree.getGraph() == end.getRegion().getIndexedRegion()) {
+                hits.increment();
+                return tree;
+            }
+        }
+    }
+
+    /**
+     * Calculates the {@link ShortestPathTree} of the given end node on the given snapshot of its {@link Region} and
+     * completes the given pending entry with it. A given stale tree of an older snapshot or an edited copy of the
+     * {@link Region} is repaired if possible, otherwise or if there is none, the tree is calculated by the delegate.
+     * Each call is counted as either a repair or a miss.
+     */
+    private ShortestPathTree load(
+        Segment segment,
+        Region.Node end,
+        Entry entry,
+        IndexedRegion graph,
+        @Nullable ShortestPathTree stale
+    ) {
+        long start = System.nanoTime();
+        try {
+            @Nullable ShortestPathTree tree = null;
+            if (stale != null) {
+                tree = stale.update(graph, MAX_REPAIRED_CHANGES);
+                if (tree == null) {
+                    @Nullable RegionDiff diff = diff(stale.getGraph(), graph);
+                    tree = diff != null ? stale.migrate(diff) : null;
+                }
+            }
+            if (tree != null) {
+                repairs.increment();
+            } else {
+                misses.increment();
+                tree = delegate.getShortestPathTree(end);
+            }
+            entry.future.complete(tree);
+            synchronized (segment) {
+                // The entry may have been cleared while the tree was calculated
+                if (segment.entries.get(end) == entry) {
+                    segment.entries.remove(end);
+                    segment.insert(end, entry, weigh(tree));
+                }
+            }
+            return tree;
+        } catch (RuntimeException | Error e) {
+            // Do not cache failures, so later requests try again
+            synchronized (segment) {
+                segment.entries.remove(end, entry);
+            }
+            entry.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadTime.add(System.nanoTime() - start);
         }
+    }
+
+    /**
+     * Returns the current statistics of this {@link CachedPathCalculator}.
+     * @return The current {@link Statistics}.
+     */
+    public Statistics getStatistics() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                weight += segment.weight;
+            }
+        }
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), repairs.sum(), loadTime.sum(), weight);
+    }
 
-        path = delegate.getAllPathsTo(end);
+    /**
+     * Removes all cached {@link ShortestPathTree}s. The statistics are not reset.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                segment.spilled.clear();
+                segment.weight = 0;
+            }
+        }
+    }
 
-        // Limit cache size
-        if (accessOrder.size() >= size) {
-            Iterator<Region.Node> iterator = accessOrder.iterator();
-            cache.remove(iterator.next());
-            iterator.remove();
+    /**
+     * Returns the changes between the given snapshots, reusing the last result if it belongs to the same snapshots.
+     */
+    private @Nullable RegionDiff diff(IndexedRegion from, IndexedRegion to) {
+        @Nullable RegionDiff diff = lastDiff;
+        if (diff == null || diff.getFrom() != from || diff.getTo() != to) {
+            diff = RegionDiff.between(from, to);
+            if (diff != null) {
+                lastDiff = diff;
+            }
         }
+        return diff;
+    }
 
-        // Update access order if the element already exists
-        accessOrder.remove(end);
-        accessOrder.add(end);
-        cache.put(end, path);
+    private long weigh(ShortestPathTree tree) {
+        return memoryBudget > 0 ? tree.getEstimatedSize() : 1;
+    }
 
-        return path;
+    private Segment segmentFor(Region.Node node) {
+        int hash = node.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
     }
 
+    /**
+     * The statistics of a {@link CachedPathCalculator}.
+     * Every request is counted exactly once, as a hit, a miss or a repair.
+     *
+     * @param hits The amount of requests that were answered by the cache, including requests that waited for a
+     *             concurrent calculation or repair of the same {@link ShortestPathTree}.
+     * @param misses The amount of requests that calculated a {@link ShortestPathTree} with the delegate, including
+     *               requests whose cached {@link ShortestPathTree} could not be repaired.
+     * @param evictions The amount of {@link ShortestPathTree}s that were removed because the cache was full.
+     * @param repairs The amount of requests that repaired a cached {@link ShortestPathTree} after durations of edges
+     *                changed or moved it to an edited copy of its {@link Region}.
+     * @param loadTime The total time in nanoseconds spent calculating and repairing {@link ShortestPathTree}s.
+     * @param weight The current amount of cached {@link ShortestPathTree}s or, if the cache is bounded by memory,
+     *               their estimated size in bytes. Trees only kept as {@link SoftReference}s are not included.
+     */
+    public record Statistics(long hits, long misses, long evictions, long repairs, long loadTime, long weight) {
+
+        /**
+         * Returns the ratio of requests that were answered by the cache without calculating or repairing a
+         * {@link ShortestPathTree}.
+         * @return The ratio of requests that were answered by the cache or 0 if there were no requests.
+         */
+        public double hitRate() {
+            long requests = hits + misses + repairs;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        /**
+         * Returns the average time in nanoseconds spent calculating or repairing a {@link ShortestPathTree}.
+         * @return The average load time or 0 if no {@link ShortestPathTree} was calculated or repaired.
+         */
+        public double averageLoadTime() {
+            long loads = misses + repairs;
+            return loads == 0 ? 0 : (double) loadTime / loads;
+        }
+    }
+
+    /**
+     * A cached {@link ShortestPathTree} that may still be calculated.
+     */
+    private static final class Entry {
+
+        private final CompletableFuture<ShortestPathTree> future = new CompletableFuture<>();
+        private long weight;
+    }
+
+    /**
+     * A {@link SoftReference} to an evicted {@link ShortestPathTree} that remembers its end node, so it can be removed
+     * from its segment once it has been cleared.
+     */
+    private static final class SpilledTree extends SoftReference<ShortestPathTree> {
+
+        private final Region.Node end;
+
+        private SpilledTree(Region.Node end, ShortestPathTree tree, ReferenceQueue<ShortestPathTree> queue) {
+            super(tree, queue);
+            this.end = end;
+        }
+    }
+
+    /**
+     * A part of the cache that is locked independently and evicts its least recently used entries when it is full.
+     */
+    private final class Segment {
+
+        private final long capacity;
+        private final Map<Region.Node, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Region.Node, SpilledTree> spilled = new HashMap<>();
+        private final ReferenceQueue<ShortestPathTree> queue = new ReferenceQueue<>();
+        private long weight;
+
+        private Segment(long capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Inserts the given calculated entry as the most recently used one and evicts the least recently used entries
+         * until the weight of this segment fits its capacity. Entries that are still calculated are not evicted.
+         */
+        private void insert(Region.Node end, Entry entry, long entryWeight) {
+            entry.weight = entryWeight;
+            entries.put(end, entry);
+            weight += entryWeight;
+
+            Iterator<Map.Entry<Region.Node, Entry>> iterator = entries.entrySet().iterator();
+            while (weight > capacity && iterator.hasNext()) {
+                Map.Entry<Region.Node, Entry> eldest = iterator.next();
+                if (!eldest.getValue().future.isDone()) {
+                    continue;
+                }
+                iterator.remove();
+                weight -= eldest.getValue().weight;
+                evictions.increment();
+                if (softReferences) {
+                    ShortestPathTree tree = eldest.getValue().future.getNow(null);
+                    if (tree != null) {
+                        spilled.put(eldest.getKey(), new SpilledTree(eldest.getKey(), tree, queue));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Removes and returns the evicted {@link ShortestPathTree} of the given end node if it has not been cleared yet.
+         */
+        private @Nullable ShortestPathTree unspill(Region.Node end) {
+            @Nullable SpilledTree reference = spilled.remove(end);
+            return reference == null ? null : reference.get();
+        }
+
+        /**
+         * Removes all {@link SoftReference}s that have been cleared by the garbage collector.
+         */
+        private void purgeSpilled() {
+            for (Object reference; (reference = queue.poll()) != null; ) {
+                SpilledTree tree = (SpilledTree) reference;
+                spilled.remove(tree.end, tree);
+            }
+        }
+    }
 }
@@ -121,6 +121,17 @@ public class ConfirmedOrder implements Serializable {
         return weight;
     }
 
+    /**
+     * Returns true if there is a path from the {@link Region.Restaurant} this {@link ConfirmedOrder} was placed at to
+     * the {@link Region.Node} at its {@link Location}. Only the connected components of both {@link Region.Node}s are
+     * compared, so orders that can never be delivered are detected without calculating a path.
+     * @return True if this {@link ConfirmedOrder} can be delivered.
+     */
+    public boolean isReachable() {
+        Region.Restaurant component = restaurant.getComponent();
+        return component.getRegion().getIndexedRegion().isConnected(component.getLocation(), location);
+    }
+
     /**
      * Returns the tick this {@link ConfirmedOrder} was actually delivered at.
      * @return The tick this {@link ConfirmedOrder} was actually delivered at.
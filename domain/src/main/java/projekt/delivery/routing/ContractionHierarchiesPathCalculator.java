@@ -0,0 +1,83 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path between two nodes using contraction hierarchies.<p>
+ *
+ * The {@link Region} is preprocessed once, when the first path inside it is requested or when
+ * {@link #preprocess(Region)} is called. Afterwards, queries only search a small part of the graph. The preprocessed
+ * hierarchy of the most recently used {@link Region} is kept, so a {@link ContractionHierarchiesPathCalculator} should
+ * not be shared by {@link VehicleManager}s of different {@link Region}s. Searches for all paths to a node are performed
+ * by {@link IndexedDijkstraPathCalculator}.
+ */
+public class ContractionHierarchiesPathCalculator extends IndexedDijkstraPathCalculator {
+
+    private volatile @Nullable ContractionHierarchy hierarchy;
+
+    /**
+     * Preprocesses the given {@link Region} if it has not been preprocessed yet.
+     * @param region The {@link Region} to preprocess.
+     */
+    @Override
+    public void preprocess(Region region) {
+        getHierarchy(region.getIndexedRegion());
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+
+        if (source == target) {
+            return new ArrayDeque<>();
+        }
+        if (!graph.isConnected(source, target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+
+        Deque<Region.Node> path = getHierarchy(graph).getPath(target, source);
+        if (path == null) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return path;
+    }
+
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+
+        if (source == target) {
+            return 0;
+        }
+        if (!graph.isConnected(source, target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+
+        long distance = getHierarchy(graph).getDistance(target, source);
+        if (distance == DijkstraWorkspace.INFINITY) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+
+    private ContractionHierarchy getHierarchy(IndexedRegion graph) {
+        ContractionHierarchy current = hierarchy;
+        if (current == null || current.getGraph() != graph) {
+            synchronized (this) {
+                current = hierarchy;
+                if (current == null || current.getGraph() != graph) {
+                    current = ContractionHierarchy.build(graph);
+                    hierarchy = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,454 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * A contraction hierarchy of an {@link IndexedRegion}.<p>
+ *
+ * During preprocessing the nodes are contracted one after another in the order of their edge difference. Whenever
+ * removing a node would lengthen the shortest path between two of its remaining neighbors, a shortcut edge is added
+ * between them. Each node only keeps the arcs to neighbors that were contracted after it (the upward graph). A shortest
+ * path query is a bidirectional Dijkstra search on the upward graph, and its result is unpacked by recursively replacing
+ * every shortcut with the two arcs it was created from.<p>
+ *
+ * A {@link ContractionHierarchy} is immutable after construction and can be queried by multiple threads at once.
+ */
+final class ContractionHierarchy {
+
+    /**
+     * The maximum amount of nodes a witness search settles before it gives up and a shortcut is added.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 200;
+
+    /**
+     * The maximum amount of nodes a witness search settles while only estimating the priority of a node.
+     */
+    private static final int ESTIMATION_SETTLE_LIMIT = 30;
+
+    private final IndexedRegion graph;
+    private final int[] ranks;
+    private final int[] offsets;
+    private final int[] targets;
+    private final long[] weights;
+    private final int[] middles;
+    private final int shortcutCount;
+
+    private ContractionHierarchy(IndexedRegion graph, int[] ranks, int[][] targets, long[][] weights, int[][] middles) {
+        this.graph = graph;
+        this.ranks = ranks;
+        int nodeCount = graph.getNodeCount();
+        offsets = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            offsets[node + 1] = offsets[node] + targets[node].length;
+        }
+        this.targets = new int[offsets[nodeCount]];
+        this.weights = new long[offsets[nodeCount]];
+        this.middles = new int[offsets[nodeCount]];
+        int shortcuts = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            System.arraycopy(targets[node], 0, this.targets, offsets[node], targets[node].length);
+            System.arraycopy(weights[node], 0, this.weights, offsets[node], weights[node].length);
+            System.arraycopy(middles[node], 0, this.middles, offsets[node], middles[node].length);
+            for (int middle : middles[node]) {
+                if (middle >= 0) {
+                    shortcuts++;
+                }
+            }
+        }
+        shortcutCount = shortcuts;
+    }
+
+    /**
+     * Creates the {@link ContractionHierarchy} of the given {@link IndexedRegion}.
+     * @param graph The {@link IndexedRegion} to preprocess.
+     * @return The created {@link ContractionHierarchy}.
+     */
+    static ContractionHierarchy build(IndexedRegion graph) {
+        return new Contractor(graph).contract();
+    }
+
+    /**
+     * Returns the {@link IndexedRegion} this {@link ContractionHierarchy} was created from.
+     * @return The {@link IndexedRegion} this {@link ContractionHierarchy} was created from.
+     */
+    IndexedRegion getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the amount of shortcuts added during preprocessing.
+     * @return The amount of shortcuts added during preprocessing.
+     */
+    int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * Calculates the shortest path between the given nodes.
+     * @param start The id of the start node.
+     * @param end The id of the end node.
+     * @return A {@link Deque} containing the {@link Region.Node}s of the path, excluding the start and including the end,
+     * or null if there is no path.
+     */
+    Deque<Region.Node> getPath(int start, int end) {
+        DijkstraWorkspace fromEnd = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+        DijkstraWorkspace fromStart = DijkstraWorkspace.acquire(1, graph.getNodeCount());
+        int meeting = search(fromStart, fromEnd, start, end);
+
+        if (meeting < 0) {
+            return null;
+        }
+
+        // Collect the nodes of the path in the upward graph, from the start over the meeting node to the end
+        int[] hierarchyPath = new int[8];
+        int length = 0;
+        for (int node = meeting; node >= 0; node = fromStart.getPredecessor(node)) {
+            hierarchyPath = ensureCapacity(hierarchyPath, length + 1);
+            hierarchyPath[length++] = node;
+        }
+        reverse(hierarchyPath, length);
+        for (int node = fromEnd.getPredecessor(meeting); node >= 0; node = fromEnd.getPredecessor(node)) {
+            hierarchyPath = ensureCapacity(hierarchyPath, length + 1);
+            hierarchyPath[length++] = node;
+        }
+
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int i = 0; i + 1 < length; i++) {
+            unpack(hierarchyPath[i], hierarchyPath[i + 1], path);
+        }
+        return path;
+    }
+
+    /**
+     * Calculates the duration of the shortest path between the given nodes without unpacking its shortcuts.
+     * @param start The id of the start node.
+     * @param end The id of the end node.
+     * @return The duration of the shortest path or {@link DijkstraWorkspace#INFINITY} if there is no path.
+     */
+    long getDistance(int start, int end) {
+        DijkstraWorkspace fromEnd = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+        DijkstraWorkspace fromStart = DijkstraWorkspace.acquire(1, graph.getNodeCount());
+        int meeting = search(fromStart, fromEnd, start, end);
+        return meeting < 0 ? DijkstraWorkspace.INFINITY : fromStart.getDistance(meeting) + fromEnd.getDistance(meeting);
+    }
+
+    /**
+     * Runs the bidirectional upward search between the given nodes.
+     * @return The id of the node at which the searches meet on the shortest path or -1 if there is no path.
+     */
+    private int search(DijkstraWorkspace fromStart, DijkstraWorkspace fromEnd, int start, int end) {
+        fromEnd.improve(end, 0, -1);
+        fromEnd.queue.push(end, 0);
+        fromStart.improve(start, 0, -1);
+        fromStart.queue.push(start, 0);
+
+        long best = DijkstraWorkspace.INFINITY;
+        int meeting = -1;
+
+        while (true) {
+            long endKey = fromEnd.queue.isEmpty() ? DijkstraWorkspace.INFINITY : fromEnd.queue.peekKey();
+            long startKey = fromStart.queue.isEmpty() ? DijkstraWorkspace.INFINITY : fromStart.queue.peekKey();
+            if (Math.min(endKey, startKey) >= best) {
+                break;
+            }
+
+            DijkstraWorkspace forward = endKey <= startKey ? fromEnd : fromStart;
+            DijkstraWorkspace backward = forward == fromEnd ? fromStart : fromEnd;
+
+            int u = forward.queue.poll();
+            forward.settle(u);
+            long distance = forward.getDistance(u);
+            if (backward.isReached(u) && distance + backward.getDistance(u) < best) {
+                best = distance + backward.getDistance(u);
+                meeting = u;
+            }
+            if (isStalled(forward, u, distance)) {
+                continue;
+            }
+            for (int arc = offsets[u], last = offsets[u + 1]; arc < last; arc++) {
+                int v = targets[arc];
+                long candidate = distance + weights[arc];
+                if (!forward.isSettled(v) && forward.improve(v, candidate, u)) {
+                    forward.queue.push(v, candidate);
+                }
+            }
+        }
+        return meeting;
+    }
+
+    /**
+     * Checks whether the given node can be reached on a shorter path coming down from a higher node. In that case its
+     * tentative distance is not the shortest one, so relaxing its arcs is pointless (stall-on-demand).
+     */
+    private boolean isStalled(DijkstraWorkspace search, int node, long distance) {
+        for (int arc = offsets[node], last = offsets[node + 1]; arc < last; arc++) {
+            int higher = targets[arc];
+            if (search.isReached(higher) && search.getDistance(higher) + weights[arc] < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the arc between the given nodes with the original {@link Region.Edge}s it represents.
+     * @param from The id of the first node of the arc.
+     * @param to The id of the second node of the arc.
+     * @param path The {@link Deque} to append all nodes of the unpacked arc except {@code from} to.
+     */
+    private void unpack(int from, int to, Deque<Region.Node> path) {
+        int[] stack = new int[16];
+        int size = 0;
+        stack[size++] = from;
+        stack[size++] = to;
+
+        while (size > 0) {
+            int b = stack[--size];
+            int a = stack[--size];
+            int middle = findMiddle(a, b);
+            if (middle < 0) {
+                path.addLast(graph.getNode(b));
+            } else {
+                // Push the second half first, so the first half is unpacked first
+                stack = ensureCapacity(stack, size + 4);
+                stack[size++] = middle;
+                stack[size++] = b;
+                stack[size++] = a;
+                stack[size++] = middle;
+            }
+        }
+    }
+
+    private int findMiddle(int a, int b) {
+        int lower = ranks[a] < ranks[b] ? a : b;
+        int higher = lower == a ? b : a;
+        for (int arc = offsets[lower], last = offsets[lower + 1]; arc < last; arc++) {
+            if (targets[arc] == higher) {
+                return middles[arc];
+            }
+        }
+        throw new AssertionError("No arc between %d and %d in the contraction hierarchy".formatted(a, b));
+    }
+
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return array.length >= capacity ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+
+    private static void reverse(int[] array, int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    /**
+     * Contracts the nodes of an {@link IndexedRegion} and collects the resulting upward graph.
+     */
+    private static final class Contractor {
+
+        private final IndexedRegion graph;
+        private final int nodeCount;
+        private final int[][] neighbors;
+        private final long[][] neighborWeights;
+        private final int[][] neighborMiddles;
+        private final int[] degrees;
+        private final int[] contractedNeighbors;
+        private final int[] levels;
+        private final int[] ranks;
+        private final int[][] upTargets;
+        private final long[][] upWeights;
+        private final int[][] upMiddles;
+        private final int[] witnessTargets;
+        private int searchId;
+
+        private Contractor(IndexedRegion graph) {
+            this.graph = graph;
+            nodeCount = graph.getNodeCount();
+            neighbors = new int[nodeCount][];
+            neighborWeights = new long[nodeCount][];
+            neighborMiddles = new int[nodeCount][];
+            degrees = new int[nodeCount];
+            contractedNeighbors = new int[nodeCount];
+            levels = new int[nodeCount];
+            ranks = new int[nodeCount];
+            upTargets = new int[nodeCount][];
+            upWeights = new long[nodeCount][];
+            upMiddles = new int[nodeCount][];
+            witnessTargets = new int[nodeCount];
+
+            for (int node = 0; node < nodeCount; node++) {
+                int degree = graph.getDegree(node);
+                neighbors[node] = new int[Math.max(degree, 1)];
+                neighborWeights[node] = new long[Math.max(degree, 1)];
+                neighborMiddles[node] = new int[Math.max(degree, 1)];
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                for (int arc = graph.getFirstArc(node), last = graph.getFirstArc(node + 1); arc < last; arc++) {
+                    if (graph.getArcTarget(arc) != node) {
+                        connect(node, graph.getArcTarget(arc), graph.getArcDuration(arc), -1);
+                    }
+                }
+            }
+        }
+
+        private ContractionHierarchy contract() {
+            IndexedMinHeap order = new IndexedMinHeap(nodeCount);
+            for (int node = 0; node < nodeCount; node++) {
+                order.push(node, priority(node));
+            }
+
+            int rank = 0;
+            while (!order.isEmpty()) {
+                int node = order.poll();
+                // Priorities are updated lazily, so the node is only contracted if it is still the best candidate
+                long priority = priority(node);
+                if (!order.isEmpty() && priority > order.peekKey()) {
+                    order.push(node, priority);
+                    continue;
+                }
+
+                ranks[node] = rank++;
+                for (long[] shortcut : findShortcuts(node, WITNESS_SETTLE_LIMIT)) {
+                    connect((int) shortcut[0], (int) shortcut[1], shortcut[2], node);
+                    connect((int) shortcut[1], (int) shortcut[0], shortcut[2], node);
+                }
+
+                // All remaining neighbors are contracted later, so the current arcs form the upward graph of the node
+                upTargets[node] = Arrays.copyOf(neighbors[node], degrees[node]);
+                upWeights[node] = Arrays.copyOf(neighborWeights[node], degrees[node]);
+                upMiddles[node] = Arrays.copyOf(neighborMiddles[node], degrees[node]);
+                int degree = degrees[node];
+                degrees[node] = 0;
+                for (int i = 0; i < degree; i++) {
+                    int neighbor = neighbors[node][i];
+                    disconnect(neighbor, node);
+                    contractedNeighbors[neighbor]++;
+                    levels[neighbor] = Math.max(levels[neighbor], levels[node] + 1);
+                }
+                for (int i = 0; i < degree; i++) {
+                    order.update(neighbors[node][i], priority(neighbors[node][i]));
+                }
+            }
+
+            return new ContractionHierarchy(graph, ranks, upTargets, upWeights, upMiddles);
+        }
+
+        /**
+         * Returns the edge difference of the given node, extended by the amount of its already contracted neighbors
+         * and its level in the hierarchy to spread the contraction evenly over the graph.
+         */
+        private long priority(int node) {
+            return 2L * (findShortcuts(node, ESTIMATION_SETTLE_LIMIT).length - degrees[node]) + contractedNeighbors[node] + levels[node];
+        }
+
+        /**
+         * Returns the shortcuts that are needed when the given node is contracted.
+         * @param node The id of the contracted node.
+         * @param settleLimit The maximum amount of nodes each witness search settles.
+         * @return The needed shortcuts, each consisting of the ids of both nodes and the weight.
+         */
+        private long[][] findShortcuts(int node, int settleLimit) {
+            int degree = degrees[node];
+            long[][] shortcuts = new long[4][];
+            int count = 0;
+
+            for (int i = 0; i < degree; i++) {
+                long maxWeight = -1;
+                for (int j = i + 1; j < degree; j++) {
+                    maxWeight = Math.max(maxWeight, neighborWeights[node][j]);
+                }
+                if (maxWeight < 0) {
+                    continue;
+                }
+
+                int from = neighbors[node][i];
+                long fromWeight = neighborWeights[node][i];
+                searchId++;
+                for (int j = i + 1; j < degree; j++) {
+                    witnessTargets[neighbors[node][j]] = searchId;
+                }
+                DijkstraWorkspace witnesses = searchWitnesses(from, node, fromWeight + maxWeight, degree - i - 1, settleLimit);
+
+                for (int j = i + 1; j < degree; j++) {
+                    long viaNode = fromWeight + neighborWeights[node][j];
+                    if (witnesses.getDistance(neighbors[node][j]) > viaNode) {
+                        if (count == shortcuts.length) {
+                            shortcuts = Arrays.copyOf(shortcuts, count * 2);
+                        }
+                        shortcuts[count++] = new long[] {from, neighbors[node][j], viaNode};
+                    }
+                }
+            }
+            return Arrays.copyOf(shortcuts, count);
+        }
+
+        /**
+         * Runs a bounded Dijkstra search on the remaining graph that ignores the given node. The search stops early
+         * once the given amount of nodes marked as witness targets has been settled.
+         */
+        private DijkstraWorkspace searchWitnesses(int source, int ignored, long maxDistance, int targets, int settleLimit) {
+            DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, nodeCount);
+            workspace.improve(source, 0, -1);
+            workspace.queue.push(source, 0);
+
+            int settled = 0;
+            while (!workspace.queue.isEmpty() && settled < settleLimit) {
+                if (workspace.queue.peekKey() > maxDistance) {
+                    break;
+                }
+                int u = workspace.queue.poll();
+                workspace.settle(u);
+                settled++;
+                if (witnessTargets[u] == searchId && --targets == 0) {
+                    break;
+                }
+                long distance = workspace.getDistance(u);
+                for (int i = 0; i < degrees[u]; i++) {
+                    int v = neighbors[u][i];
+                    long candidate = distance + neighborWeights[u][i];
+                    if (v != ignored && !workspace.isSettled(v) && workspace.improve(v, candidate, u)) {
+                        workspace.queue.push(v, candidate);
+                    }
+                }
+            }
+            return workspace;
+        }
+
+        private void connect(int from, int to, long weight, int middle) {
+            for (int i = 0; i < degrees[from]; i++) {
+                if (neighbors[from][i] == to) {
+                    if (weight < neighborWeights[from][i]) {
+                        neighborWeights[from][i] = weight;
+                        neighborMiddles[from][i] = middle;
+                    }
+                    return;
+                }
+            }
+            if (degrees[from] == neighbors[from].length) {
+                int capacity = neighbors[from].length * 2;
+                neighbors[from] = Arrays.copyOf(neighbors[from], capacity);
+                neighborWeights[from] = Arrays.copyOf(neighborWeights[from], capacity);
+                neighborMiddles[from] = Arrays.copyOf(neighborMiddles[from], capacity);
+            }
+            neighbors[from][degrees[from]] = to;
+            neighborWeights[from][degrees[from]] = weight;
+            neighborMiddles[from][degrees[from]] = middle;
+            degrees[from]++;
+        }
+
+        private void disconnect(int from, int to) {
+            for (int i = 0; i < degrees[from]; i++) {
+                if (neighbors[from][i] == to) {
+                    int last = --degrees[from];
+                    neighbors[from][i] = neighbors[from][last];
+                    neighborWeights[from][i] = neighborWeights[from][last];
+                    neighborMiddles[from][i] = neighborMiddles[from][last];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -6,10 +6,20 @@ import org.jetbrains.annotations.Nullable;
 import java.util.*;
 
 /**
- * A {@link PathCalculator} that calculates the shortest path between from a start and end point using Dijkstra.
+ * A {@link PathCalculator} that calculates the shortest path between from a start and end point using Dijkstra.<p>
+ *
+ * Single pair queries stop as soon as the start node is settled and only create {@link DijkstraNode}s for the nodes
+ * they reach. Their queue and node map are kept per thread and reused by the following queries. Pairs of nodes in
+ * different components of the {@link IndexedRegion} are rejected before searching.<p>
+ *
+ * The priority queue holds immutable {@link QueueEntry}s instead of the {@link DijkstraNode}s themselves, since the
+ * duration of a node may decrease while it is queued. A relaxed node is queued again with its new duration and entries
+ * of nodes that are already settled are skipped.
  */
 public class DijkstraPathCalculator implements PathCalculator {
 
+    private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
     /**
      * Relaxes the given edge.
      *
@@ -36,17 +46,17 @@ public class DijkstraPathCalculator implements PathCalculator {
     /**
      * Initializes the SSSP for the given start node.
      *
-     * @param queue      the queue to add the initialized dijkstra nodes to.
+     * @param queue      the queue to add the entry of the start node to.
      * @param references the map to reference the dijkstra nodes by their region node.
      * @param start      the start node.
      */
-    private void initSSSP(Queue<DijkstraNode> queue, Map<Region.Node, DijkstraNode> references, Region.Node start) {
+    private void initSSSP(Queue<QueueEntry> queue, Map<Region.Node, DijkstraNode> references, Region.Node start) {
         for (Region.Node node : start.getRegion().getNodes()) {
             DijkstraNode dijkstraNode;
             if (node.equals(start)) {
                 dijkstraNode = new DijkstraNode(node, 0L);
                 // Starting node in queue only contains the starting node since new relaxed node will be added to the queue anyway
-                queue.add(dijkstraNode);
+                queue.add(new QueueEntry(dijkstraNode, 0L));
             } else {
                 // Infinity weight
                 dijkstraNode = new DijkstraNode(node);
@@ -65,25 +75,20 @@ public class DijkstraPathCalculator implements PathCalculator {
     private Map<Region.Node, DijkstraNode> execute(Region.Node end) {
         // Initialize SSSP
         int size = end.getRegion().getNodes().size();
-        Queue<DijkstraNode> queue = new PriorityQueue<>(size);
+        Queue<QueueEntry> queue = new PriorityQueue<>(size);
         Map<Region.Node, DijkstraNode> references = new HashMap<>(size);
         initSSSP(queue, references, end);
 
         // Relax edges
         while (!queue.isEmpty()) {
-            DijkstraNode u = queue.poll();
+            DijkstraNode u = queue.poll().node();
 
-            // Trick priority queue to not work on the same node twice
+            // Older entries of a node whose duration decreased are skipped, the first entry polled carries the final duration
             if (u.visited) {
                 continue;
             }
             u.visited = true;
 
-            // If the lowest distance in the queue is infinity, we can stop as all relax attempts from here will fail
-            if (u.duration == null) {
-                break;
-            }
-
             for (Region.Node node : u.node.getAdjacentNodes()) {
                 DijkstraNode v = references.get(node);
                 // Only relax if the node is not visited (v must be in Q)
@@ -93,7 +98,7 @@ public class DijkstraPathCalculator implements PathCalculator {
                 Region.Edge edge = u.node.getEdge(node);
                 assert edge != null;
                 if (relax(u, v, edge)) {
-                    queue.add(v);
+                    queue.add(new QueueEntry(v, v.duration));
                 }
             }
         }
@@ -102,62 +107,148 @@ public class DijkstraPathCalculator implements PathCalculator {
     }
 
     /**
-     * Reconstructs the path from {@code start} to {@code end} after Dijkstra's algorithm was performed.
-     * @param references the results of Dijkstra's algorithm.
-     * @param start the start node of the path.
-     * @param end the end node of the path.
-     * @return The reconstructed path from {@code start} to {@code end}.
+     * Executes Dijkstra's algorithm starting at the given end node until the given start node is settled. In contrast
+     * to {@link #execute(Region.Node)}, {@link DijkstraNode}s are only created for the nodes that are reached.
+     * @param workspace The workspace to store the {@link DijkstraNode}s in. It has to be empty.
+     * @param start The node at which the search stops.
+     * @param end The starting node of the search.
+     * @return The settled {@link DijkstraNode} of the start node or {@code null} if it is not reachable.
      */
-    private Deque<Region.Node> reconstructPath(Map<Region.Node, DijkstraNode> references, Region.Node start, Region.Node end) {
+    private @Nullable DijkstraNode executeUntil(Workspace workspace, Region.Node start, Region.Node end) {
+        DijkstraNode source = new DijkstraNode(end, 0L);
+        workspace.references.put(end, source);
+        workspace.queue.add(new QueueEntry(source, 0L));
 
-        if (start == end) {
-            return new ArrayDeque<>();
-        }
-        // Reconstruct path, the start node is not part of the path
-        Deque<Region.Node> path = new ArrayDeque<>(start.getRegion().getNodes().size());
-        DijkstraNode node = references.get(start);
-        DijkstraNode endNode = references.get(end);
+        while (!workspace.queue.isEmpty()) {
+            DijkstraNode u = workspace.queue.poll().node();
 
-        //don't add the startNode to the path
-        node = node.previous;
+            // Older entries of a node whose duration decreased are skipped, the first entry polled carries the final duration
+            if (u.visited) {
+                continue;
+            }
+            u.visited = true;
+
+            // The duration of the start node is final once it is polled, so the rest of the region can be skipped
+            if (u.node.equals(start)) {
+                return u;
+            }
 
-        while (node != endNode) {
-            assert node != null;
-            path.addLast(node.node);
-            node = node.previous;
+            for (Region.Node node : u.node.getAdjacentNodes()) {
+                DijkstraNode v = workspace.references.computeIfAbsent(node, DijkstraNode::new);
+                if (v.visited) {
+                    continue;
+                }
+                Region.Edge edge = u.node.getEdge(node);
+                assert edge != null;
+                if (relax(u, v, edge)) {
+                    workspace.queue.add(new QueueEntry(v, v.duration));
+                }
+            }
         }
 
-        //add endNode to path
-        path.addLast(endNode.node);
+        return null;
+    }
 
-        return path;
+    /**
+     * Rejects pairs of nodes in different components of the {@link IndexedRegion} of their region in {@code O(1)},
+     * which would otherwise be detected only after searching the whole component of the end node.
+     * @param start The start of the path.
+     * @param end The end of the path.
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    private static void requireConnected(Region.Node start, Region.Node end) {
+        if (!end.getRegion().getIndexedRegion().isConnected(start.getLocation(), end.getLocation())) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
     }
 
     @Override
     public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
-        Map<Region.Node, DijkstraNode> references = execute(end);
+        if (start.equals(end)) {
+            return new ArrayDeque<>();
+        }
+        requireConnected(start, end);
+
+        Workspace workspace = WORKSPACES.get();
+        try {
+            DijkstraNode node = executeUntil(workspace, start, end);
+            if (node == null) {
+                throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+            }
 
-        return reconstructPath(references, start, end);
+            // Reconstruct path, the start node is not part of the path but the end node is
+            Deque<Region.Node> path = new ArrayDeque<>();
+            for (DijkstraNode current = node.previous; current != null; current = current.previous) {
+                path.addLast(current.node);
+            }
+            return path;
+        } finally {
+            workspace.clear();
+        }
+    }
+
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        if (start.equals(end)) {
+            return 0;
+        }
+        requireConnected(start, end);
+
+        Workspace workspace = WORKSPACES.get();
+        try {
+            DijkstraNode node = executeUntil(workspace, start, end);
+            if (node == null || node.duration == null) {
+                throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+            }
+            return node.duration;
+        } finally {
+            workspace.clear();
+        }
     }
 
     @Override
     public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        return getShortestPathTree(end).asMap();
+    }
 
+    @Override
+    public ShortestPathTree getShortestPathTree(Region.Node end) {
         Map<Region.Node, DijkstraNode> references = execute(end);
 
-        Map<Region.Node, Deque<Region.Node>> paths = new HashMap<>();
-
-        for (Region.Node node : end.getRegion().getNodes()) {
-            paths.put(node, reconstructPath(references, node, end));
+        // Store the predecessors of the result as ids instead of materializing a path for every node
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        int[] nextHops = new int[graph.getNodeCount()];
+        long[] distances = new long[graph.getNodeCount()];
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            DijkstraNode dijkstraNode = references.get(graph.getNode(node));
+            nextHops[node] = dijkstraNode.previous == null ? -1 : graph.requireIndexOf(dijkstraNode.previous.node);
+            distances[node] = dijkstraNode.duration == null ? ShortestPathTree.UNREACHABLE : dijkstraNode.duration;
         }
 
-        return paths;
+        return new ShortestPathTree(graph, graph.requireIndexOf(end), nextHops, distances);
+    }
+
+    /**
+     * The reusable queue and node map of the single pair queries of one thread.
+     */
+    private static class Workspace {
+
+        private final Queue<QueueEntry> queue = new PriorityQueue<>();
+        private final Map<Region.Node, DijkstraNode> references = new HashMap<>();
+
+        /**
+         * Removes all {@link DijkstraNode}s of the previous query.
+         */
+        private void clear() {
+            queue.clear();
+            references.clear();
+        }
     }
 
     /**
      * Wraps a region node which contains additional information for the dijkstra algorithm.
      */
-    private static class DijkstraNode implements Comparable<DijkstraNode> {
+    private static class DijkstraNode {
 
         /**
          * The region node which is wrapped.
@@ -173,8 +264,8 @@ public class DijkstraPathCalculator implements PathCalculator {
          */
         public @Nullable DijkstraNode previous;
         /**
-         * Whether this node has been visited. Since a {@link PriorityQueue} cannot update its priority after an element was
-         * updated, this is used to mark whether the node has been visited.
+         * Whether this node has been visited. Since a {@link PriorityQueue} cannot update the priority of a queued
+         * {@link QueueEntry}, a node may be queued several times and this marks whether it has already been settled.
          */
         public boolean visited;
 
@@ -212,23 +303,20 @@ public class DijkstraPathCalculator implements PathCalculator {
         public DijkstraNode(Region.Node node) {
             this(node, null, null, false);
         }
+    }
+
+    /**
+     * An entry of the priority queue. Its duration is fixed when it is queued, so relaxing the queued node later does
+     * not change the order of the queue.
+     *
+     * @param node     the queued dijkstra node
+     * @param duration the duration of the node when it was queued
+     */
+    private record QueueEntry(DijkstraNode node, long duration) implements Comparable<QueueEntry> {
 
         @Override
-        public int compareTo(@NotNull DijkstraNode o) {
-            // If the weight is infinite, it is always greater than any other weight or equal to it
-            if (this.duration == null) {
-                // If both weights are infinite
-                if (o.duration == null) {
-                    return 0;
-                }
-                return 1;
-            }
-            // If the other weight is infinite, it is always less than this weight
-            else if (o.duration == null) {
-                return -1;
-            }
-            // If both weights are finite, compare them
-            return duration.compareTo(o.duration);
+        public int compareTo(@NotNull QueueEntry o) {
+            return Long.compare(duration, o.duration);
         }
     }
 }
@@ -0,0 +1,216 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * Reusable scratch memory for shortest path searches on an {@link IndexedRegion}.<p>
+ *
+ * Distances and predecessors are stored in primitive arrays indexed by node id. Instead of clearing these arrays
+ * before every search, each entry is tagged with the stamp of the search that wrote it, so {@link #reset(int)} runs in
+ * constant time. Workspaces are kept per thread and can be obtained with {@link #acquire(int, int)}.
+ */
+final class DijkstraWorkspace {
+
+    /**
+     * The distance of nodes that have not been reached.
+     */
+    static final long INFINITY = Long.MAX_VALUE;
+
+    /**
+     * The amount of workspaces each thread can hold at the same time.
+     */
+    static final int SLOTS = 2;
+
+    private static final ThreadLocal<DijkstraWorkspace[]> WORKSPACES =
+        ThreadLocal.withInitial(() -> new DijkstraWorkspace[SLOTS]);
+
+    final IndexedMinHeap queue;
+    private long[] distances;
+    private int[] predecessors;
+    private int[] reached;
+    private int[] settled;
+    private int stamp;
+
+    private DijkstraWorkspace(int capacity) {
+        queue = new IndexedMinHeap(capacity);
+        distances = new long[capacity];
+        predecessors = new int[capacity];
+        reached = new int[capacity];
+        settled = new int[capacity];
+    }
+
+    /**
+     * Returns the workspace of the current thread stored in the given slot, reset for a search over the given amount
+     * of nodes.<p>
+     *
+     * Searches that need multiple workspaces at once, e.g. bidirectional searches, have to use different slots.
+     *
+     * @param slot The slot of the workspace, in {@code [0, SLOTS)}.
+     * @param nodeCount The amount of nodes of the searched graph.
+     * @return The reset workspace.
+     */
+    static DijkstraWorkspace acquire(int slot, int nodeCount) {
+        DijkstraWorkspace[] workspaces = WORKSPACES.get();
+        if (workspaces[slot] == null) {
+            workspaces[slot] = new DijkstraWorkspace(nodeCount);
+        }
+        workspaces[slot].reset(nodeCount);
+        return workspaces[slot];
+    }
+
+    /**
+     * Discards the results of the previous search and prepares this workspace for a search over the given amount of
+     * nodes.
+     * @param nodeCount The amount of nodes of the searched graph.
+     */
+    void reset(int nodeCount) {
+        if (distances.length < nodeCount) {
+            distances = new long[nodeCount];
+            predecessors = new int[nodeCount];
+            reached = new int[nodeCount];
+            settled = new int[nodeCount];
+            queue.ensureCapacity(nodeCount);
+            stamp = 0;
+        }
+        queue.clear();
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            stamp = 0;
+        }
+        stamp++;
+    }
+
+    /**
+     * Returns the tentative distance of the given node.
+     * @param node The id of the node.
+     * @return The tentative distance of the given node or {@link #INFINITY} if it has not been reached.
+     */
+    long getDistance(int node) {
+        return reached[node] == stamp ? distances[node] : INFINITY;
+    }
+
+    /**
+     * Returns the predecessor of the given node on its tentative shortest path.
+     * @param node The id of the node.
+     * @return The id of the predecessor or -1 if the given node is the source or has not been reached.
+     */
+    int getPredecessor(int node) {
+        return reached[node] == stamp ? predecessors[node] : -1;
+    }
+
+    /**
+     * Returns true if the given node has been reached.
+     * @param node The id of the node.
+     * @return True if the given node has been reached.
+     */
+    boolean isReached(int node) {
+        return reached[node] == stamp;
+    }
+
+    /**
+     * Returns true if the distance of the given node is final.
+     * @param node The id of the node.
+     * @return True if the distance of the given node is final.
+     */
+    boolean isSettled(int node) {
+        return settled[node] == stamp;
+    }
+
+    /**
+     * Marks the distance of the given node as final.
+     * @param node The id of the node.
+     */
+    void settle(int node) {
+        settled[node] = stamp;
+    }
+
+    /**
+     * Sets the tentative distance of the given node if it is shorter than the current one.
+     * @param node The id of the node.
+     * @param distance The new distance.
+     * @param predecessor The id of the predecessor of the node or -1 if the node is a source.
+     * @return True if the distance was updated.
+     */
+    boolean improve(int node, long distance, int predecessor) {
+        if (reached[node] == stamp && distances[node] <= distance) {
+            return false;
+        }
+        reached[node] = stamp;
+        distances[node] = distance;
+        predecessors[node] = predecessor;
+        return true;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm on the given graph starting at the given source.
+     * @param graph The searched graph.
+     * @param source The id of the source node.
+     * @param target The id of the node at which the search may stop once it is settled or -1 to settle all reachable
+     *               nodes.
+     */
+    void run(IndexedRegion graph, int source, int target) {
+        improve(source, 0, -1);
+        queue.push(source, 0);
+
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            settle(u);
+            if (u == target) {
+                return;
+            }
+            relax(graph, u);
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm on the given graph starting at the given source until all given targets are settled.
+     * @param graph The searched graph.
+     * @param source The id of the source node.
+     * @param targets The ids of the nodes at which the search may stop once all of them are settled.
+     * @param targetCount The amount of ids contained in {@code targets}.
+     */
+    void run(IndexedRegion graph, int source, BitSet targets, int targetCount) {
+        improve(source, 0, -1);
+        queue.push(source, 0);
+
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            settle(u);
+            if (targets.get(u) && --targetCount == 0) {
+                return;
+            }
+            relax(graph, u);
+        }
+    }
+
+    private void relax(IndexedRegion graph, int u) {
+        long distance = distances[u];
+        for (int arc = graph.getFirstArc(u), end = graph.getFirstArc(u + 1); arc < end; arc++) {
+            int v = graph.getArcTarget(arc);
+            long candidate = distance + graph.getArcDuration(arc);
+            if (settled[v] != stamp && improve(v, candidate, u)) {
+                queue.push(v, candidate);
+            }
+        }
+    }
+
+    /**
+     * Follows the predecessors from the given node to the source of the previous search.
+     * @param graph The searched graph.
+     * @param node The id of the node the path starts at.
+     * @return A {@link Deque} containing the {@link Region.Node}s of the path, excluding the given node and including
+     * the source. It is empty if the given node is the source.
+     */
+    Deque<Region.Node> walkToSource(IndexedRegion graph, int node) {
+        assert isReached(node);
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int current = predecessors[node]; current >= 0; current = predecessors[current]) {
+            path.addLast(graph.getNode(current));
+        }
+        return path;
+    }
+}
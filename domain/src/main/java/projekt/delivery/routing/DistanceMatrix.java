@@ -0,0 +1,151 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A dense table of the durations of the shortest paths from every {@link Region.Restaurant} of a {@link Region} to
+ * every {@link Region.Restaurant} and {@link Region.Neighborhood} of the same {@link Region}.<p>
+ *
+ * Most decisions of a delivery service and most ratings only ask for the cost of a trip from a restaurant to a
+ * neighborhood, so a {@link DistanceMatrix} turns these queries into array reads. Queries for other pairs of
+ * {@link Region.Node}s are forwarded to the {@link PathCalculator} the matrix was computed with.<p>
+ *
+ * {@link DistanceMatrix}s are immutable and can be shared between threads. To obtain the {@link DistanceMatrix} of a
+ * {@link VehicleManager} use {@link VehicleManager#getDistanceMatrix()}.
+ */
+public final class DistanceMatrix {
+
+    private final IndexedRegion graph;
+    private final PathCalculator pathCalculator;
+    private final List<Region.Restaurant> restaurants;
+    private final List<Region.Neighborhood> neighborhoods;
+    private final Map<Region.Node, Integer> rows;
+    private final Map<Region.Node, Integer> columns;
+    private final long[][] distances;
+
+    private DistanceMatrix(
+        IndexedRegion graph,
+        PathCalculator pathCalculator,
+        List<Region.Restaurant> restaurants,
+        List<Region.Neighborhood> neighborhoods,
+        long[][] distances
+    ) {
+        this.graph = graph;
+        this.pathCalculator = pathCalculator;
+        this.restaurants = Collections.unmodifiableList(restaurants);
+        this.neighborhoods = Collections.unmodifiableList(neighborhoods);
+        this.rows = new HashMap<>(restaurants.size() * 2);
+        this.columns = new HashMap<>((restaurants.size() + neighborhoods.size()) * 2);
+        for (Region.Restaurant restaurant : restaurants) {
+            rows.put(restaurant, rows.size());
+            columns.put(restaurant, columns.size());
+        }
+        for (Region.Neighborhood neighborhood : neighborhoods) {
+            columns.put(neighborhood, columns.size());
+        }
+        this.distances = distances;
+    }
+
+    /**
+     * Computes the {@link DistanceMatrix} of the given {@link Region} with the given {@link PathCalculator}.<p>
+     *
+     * The columns of the matrix are split into chunks that are computed in parallel on the common
+     * {@link ForkJoinPool} using {@link PathCalculator#getDistanceTable(List, List)}, so the given
+     * {@link PathCalculator} has to be thread-safe.
+     *
+     * @param region The {@link Region} to compute the matrix of.
+     * @param pathCalculator The {@link PathCalculator} used to calculate the distances.
+     * @return The computed {@link DistanceMatrix}.
+     */
+    public static DistanceMatrix compute(Region region, PathCalculator pathCalculator) {
+        IndexedRegion graph = region.getIndexedRegion();
+        List<Region.Restaurant> restaurants = new ArrayList<>();
+        List<Region.Neighborhood> neighborhoods = new ArrayList<>();
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            if (graph.getNode(node) instanceof Region.Restaurant restaurant) {
+                restaurants.add(restaurant);
+            } else if (graph.getNode(node) instanceof Region.Neighborhood neighborhood) {
+                neighborhoods.add(neighborhood);
+            }
+        }
+
+        List<Region.Node> destinations = new ArrayList<>(restaurants);
+        destinations.addAll(neighborhoods);
+        long[][] distances = new long[restaurants.size()][destinations.size()];
+        int chunkCount = Math.min(destinations.size(), ForkJoinPool.getCommonPoolParallelism() * 4);
+
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            int from = (int) ((long) destinations.size() * chunk / chunkCount);
+            int to = (int) ((long) destinations.size() * (chunk + 1) / chunkCount);
+            long[][] table = pathCalculator.getDistanceTable(restaurants, destinations.subList(from, to));
+            for (int i = 0; i < restaurants.size(); i++) {
+                System.arraycopy(table[i], 0, distances[i], from, to - from);
+            }
+        });
+
+        return new DistanceMatrix(graph, pathCalculator, restaurants, neighborhoods, distances);
+    }
+
+    /**
+     * Returns the {@link IndexedRegion} snapshot this {@link DistanceMatrix} was computed on.
+     * @return The {@link IndexedRegion} this {@link DistanceMatrix} was computed on.
+     */
+    public IndexedRegion getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the {@link Region.Restaurant}s at the start of the paths stored in this {@link DistanceMatrix}.
+     * @return An unmodifiable {@link List} of all {@link Region.Restaurant}s, ordered by their ids.
+     */
+    public List<Region.Restaurant> getRestaurants() {
+        return restaurants;
+    }
+
+    /**
+     * Returns the {@link Region.Neighborhood}s stored in this {@link DistanceMatrix}.
+     * @return An unmodifiable {@link List} of all {@link Region.Neighborhood}s, ordered by their ids.
+     */
+    public List<Region.Neighborhood> getNeighborhoods() {
+        return neighborhoods;
+    }
+
+    /**
+     * Returns true if the distance between the given {@link Region.Node}s is stored in this {@link DistanceMatrix},
+     * i.e. {@code start} is a {@link Region.Restaurant} and {@code end} a {@link Region.Restaurant} or a
+     * {@link Region.Neighborhood} of the {@link Region} this {@link DistanceMatrix} was computed on.
+     * @param start The start {@link Region.Node}.
+     * @param end The end {@link Region.Node}.
+     * @return True if the distance is stored in this {@link DistanceMatrix}.
+     */
+    public boolean contains(Region.Node start, Region.Node end) {
+        return rows.containsKey(start) && columns.containsKey(end);
+    }
+
+    /**
+     * Returns the duration of the shortest path from {@code start} to {@code end}. If the pair is not stored in this
+     * {@link DistanceMatrix}, the distance is calculated by {@link PathCalculator#getDistance(Region.Node, Region.Node)}.
+     * @param start The start {@link Region.Node}.
+     * @param end The end {@link Region.Node}.
+     * @return The duration of the shortest path from {@code start} to {@code end}.
+     * @throws IllegalArgumentException If there is no path from {@code start} to {@code end}.
+     */
+    public long getDistance(Region.Node start, Region.Node end) {
+        Integer row = rows.get(start);
+        Integer column = row != null ? columns.get(end) : null;
+        if (column == null) {
+            return pathCalculator.getDistance(start, end);
+        }
+        long distance = distances[row][column];
+        if (distance == ShortestPathTree.UNREACHABLE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return distance;
+    }
+}
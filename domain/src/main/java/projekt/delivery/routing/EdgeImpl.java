@@ -19,6 +19,7 @@ class EdgeImpl implements Region.Edge {
     private final Location locationA;
     private final Location locationB;
     private final long duration;
+    private final int hashCode;
 
     /**
      * Creates a new {@link EdgeImpl} instance.
@@ -44,6 +45,7 @@ class EdgeImpl implements Region.Edge {
         this.locationA = locationA;
         this.locationB = locationB;
         this.duration = duration;
+        this.hashCode = Objects.hash(name, locationA, locationB, duration);
     }
 
     /**
@@ -111,7 +113,7 @@ class EdgeImpl implements Region.Edge {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, locationA, locationB, duration);
+        return hashCode;
     }
 
     @Override
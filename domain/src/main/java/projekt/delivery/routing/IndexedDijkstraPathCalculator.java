@@ -0,0 +1,113 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link PathCalculator} that calculates shortest paths using Dijkstra's algorithm on the {@link IndexedRegion} of
+ * the searched {@link Region}.<p>
+ *
+ * In contrast to {@link DijkstraPathCalculator} it works on primitive node ids and arrays and uses an indexed binary
+ * heap with decrease-key. The scratch arrays of a search are reused by all searches of the same thread, so this
+ * {@link PathCalculator} is stateless and can be shared between threads.
+ */
+public class IndexedDijkstraPathCalculator implements PathCalculator {
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+
+        if (source == target) {
+            return new ArrayDeque<>();
+        }
+        if (!graph.isConnected(source, target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+
+        // Search from the end, so the predecessors lead from start to end
+        DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+        workspace.run(graph, source, target);
+
+        if (!workspace.isReached(target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return workspace.walkToSource(graph, target);
+    }
+
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+
+        if (source == target) {
+            return 0;
+        }
+        if (!graph.isConnected(source, target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+
+        DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+        workspace.run(graph, source, target);
+
+        if (!workspace.isReached(target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+        return workspace.getDistance(target);
+    }
+
+    /**
+     * {@inheritDoc}<p>
+     *
+     * Runs one search per target that stops as soon as all sources of its connected component are settled, so no
+     * {@link ShortestPathTree} is allocated. Targets without sources in their component are not searched at all.
+     */
+    @Override
+    public long[][] getDistanceTable(List<? extends Region.Node> sources, List<? extends Region.Node> targets) {
+        long[][] table = new long[sources.size()][targets.size()];
+        if (sources.isEmpty() || targets.isEmpty()) {
+            return table;
+        }
+        IndexedRegion graph = targets.get(0).getRegion().getIndexedRegion();
+        int[] sourceIds = sources.stream().mapToInt(graph::requireIndexOf).toArray();
+        BitSet sourceSet = new BitSet(graph.getNodeCount());
+        Arrays.stream(sourceIds).forEach(sourceSet::set);
+        // Sources in other components are never settled, so each search only waits for the sources of its component
+        int[] sourceCounts = new int[graph.getComponentCount()];
+        sourceSet.stream().forEach(source -> sourceCounts[graph.getComponentId(source)]++);
+
+        for (int j = 0; j < targets.size(); j++) {
+            int target = graph.requireIndexOf(targets.get(j));
+            if (sourceCounts[graph.getComponentId(target)] == 0) {
+                for (long[] row : table) {
+                    row[j] = ShortestPathTree.UNREACHABLE;
+                }
+                continue;
+            }
+            // Search from the target, so the searches are able to stop once all sources are settled
+            DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+            workspace.run(graph, target, sourceSet, sourceCounts[graph.getComponentId(target)]);
+            for (int i = 0; i < sourceIds.length; i++) {
+                long distance = workspace.getDistance(sourceIds[i]);
+                table[i][j] = distance == DijkstraWorkspace.INFINITY ? ShortestPathTree.UNREACHABLE : distance;
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end) {
+        return getShortestPathTree(end).asMap();
+    }
+
+    @Override
+    public ShortestPathTree getShortestPathTree(Region.Node end) {
+        return ShortestPathTree.of(end);
+    }
+}
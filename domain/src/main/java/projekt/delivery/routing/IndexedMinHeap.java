@@ -0,0 +1,160 @@
+package projekt.delivery.routing;
+
+import java.util.Arrays;
+
+/**
+ * A binary min heap of node ids with {@code long} keys that supports decreasing the key of a contained node.<p>
+ *
+ * Every node id can be contained at most once. The position of each node inside the heap is tracked, so
+ * {@link #push(int, long)} is able to update the key of a node that is already contained in {@code O(log n)}.
+ */
+final class IndexedMinHeap {
+
+    private int[] nodes;
+    private long[] keys;
+    private int[] positions;
+    private int size;
+
+    /**
+     * Creates a new, empty {@link IndexedMinHeap} for node ids in {@code [0, capacity)}.
+     * @param capacity The amount of distinct node ids.
+     */
+    IndexedMinHeap(int capacity) {
+        nodes = new int[capacity];
+        keys = new long[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Ensures that this {@link IndexedMinHeap} is able to hold node ids in {@code [0, capacity)}.
+     * @param capacity The amount of distinct node ids.
+     */
+    void ensureCapacity(int capacity) {
+        if (positions.length >= capacity) {
+            return;
+        }
+        int oldCapacity = positions.length;
+        nodes = Arrays.copyOf(nodes, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        Arrays.fill(positions, oldCapacity, capacity, -1);
+    }
+
+    /**
+     * Returns true if this {@link IndexedMinHeap} does not contain any node.
+     * @return True if this {@link IndexedMinHeap} does not contain any node.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if the given node is contained in this {@link IndexedMinHeap}.
+     * @param node The id of the node.
+     * @return True if the given node is contained in this {@link IndexedMinHeap}.
+     */
+    boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    /**
+     * Inserts the given node with the given key or decreases its key if it is already contained.<p>
+     *
+     * If the node is already contained with a smaller or equal key, nothing happens.
+     *
+     * @param node The id of the node.
+     * @param key The key of the node.
+     */
+    void push(int node, long key) {
+        int position = positions[node];
+        if (position < 0) {
+            position = size++;
+        } else if (keys[position] <= key) {
+            return;
+        }
+        siftUp(position, node, key);
+    }
+
+    /**
+     * Inserts the given node with the given key or replaces its key if it is already contained.
+     * @param node The id of the node.
+     * @param key The new key of the node.
+     */
+    void update(int node, long key) {
+        int position = positions[node];
+        if (position < 0) {
+            siftUp(size++, node, key);
+        } else if (key < keys[position]) {
+            siftUp(position, node, key);
+        } else {
+            siftDown(position, node, key);
+        }
+    }
+
+    /**
+     * Returns the smallest key contained in this {@link IndexedMinHeap}.
+     * @return The smallest key contained in this {@link IndexedMinHeap}.
+     */
+    long peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Removes and returns the node with the smallest key.
+     * @return The id of the removed node.
+     */
+    int poll() {
+        int result = nodes[0];
+        positions[result] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(0, nodes[size], keys[size]);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all nodes from this {@link IndexedMinHeap}.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[nodes[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position, int node, long key) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            move(nodes[parent], keys[parent], position);
+            position = parent;
+        }
+        move(node, key, position);
+    }
+
+    private void siftDown(int position, int node, long key) {
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            move(nodes[child], keys[child], position);
+            position = child;
+        }
+        move(node, key, position);
+    }
+
+    private void move(int node, long key, int position) {
+        nodes[position] = node;
+        keys[position] = key;
+        positions[node] = position;
+    }
+}
@@ -0,0 +1,586 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dense, integer indexed snapshot of a {@link Region} stored in compressed sparse row (CSR) format.<p>
+ *
+ * Every {@link Region.Node} is assigned an id in {@code [0, getNodeCount())} and every {@link Region.Edge} an id in
+ * {@code [0, getEdgeCount())}. Each edge is stored as two directed arcs, one per direction. The arcs leaving the node
+ * with id {@code i} occupy the positions {@code [getFirstArc(i), getFirstArc(i + 1))}.<p>
+ *
+ * Node ids follow a Hilbert curve over the {@link Location}s of the nodes, so nodes that are close to each other in
+ * the {@link Region} are also close to each other in the arrays of the snapshot. Searches that expand the neighborhood
+ * of a node, like Dijkstra's algorithm, therefore touch fewer cache lines.<p>
+ *
+ * To obtain an {@link IndexedRegion} use {@link Region#getIndexedRegion()}.<p>
+ *
+ * Snapshots are immutable. If the duration of an edge changes, the {@link Region} replaces its snapshot with a
+ * successor that shares the topology and ids of its predecessor. Each snapshot remembers its successor and the edge
+ * that changed, so data computed on an older snapshot can be repaired instead of being recomputed.<p>
+ *
+ * The connected components of the graph are labeled when the snapshot is created, so unreachable pairs of nodes can be
+ * detected without a search, see {@link #isConnected(int, int)}.
+ */
+public final class IndexedRegion {
+
+    /**
+     * The largest coordinate of the grid {@link Location}s are mapped to before computing their Hilbert index.
+     */
+    private static final int HILBERT_MAX = (1 << 16) - 1;
+
+    private final Region region;
+    private final Region.Node[] nodes;
+    private final Region.Edge[] edges;
+    private final Map<Location, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] arcEdges;
+    private final int[] edgeArcs;
+    private final long[] durations;
+    private final int[] componentIds;
+    private final int componentCount;
+    private final boolean geometricLowerBound;
+    private volatile @Nullable IndexedRegion successor;
+    private int changedEdge = -1;
+
+    private IndexedRegion(Region region, Region.Node[] nodes, Region.Edge[] edges) {
+        this.region = region;
+        this.nodes = nodes;
+        this.edges = edges;
+        this.ids = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            ids.put(nodes[i].getLocation(), i);
+        }
+
+        int[] endpointsA = new int[edges.length];
+        int[] endpointsB = new int[edges.length];
+        offsets = new int[nodes.length + 1];
+        for (int e = 0; e < edges.length; e++) {
+            endpointsA[e] = requireIndexOf(edges[e].getNodeA());
+            endpointsB[e] = requireIndexOf(edges[e].getNodeB());
+            offsets[endpointsA[e] + 1]++;
+            if (endpointsA[e] != endpointsB[e]) {
+                offsets[endpointsB[e] + 1]++;
+            }
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int arcCount = offsets[nodes.length];
+        edgeArcs = new int[edges.length];
+        targets = new int[arcCount];
+        arcEdges = new int[arcCount];
+        durations = new long[arcCount];
+        int[] next = Arrays.copyOf(offsets, nodes.length);
+        for (int e = 0; e < edges.length; e++) {
+            long duration = edges[e].getDuration();
+            int arc = next[endpointsA[e]]++;
+            edgeArcs[e] = arc;
+            targets[arc] = endpointsB[e];
+            arcEdges[arc] = e;
+            durations[arc] = duration;
+            if (endpointsA[e] != endpointsB[e]) {
+                arc = next[endpointsB[e]]++;
+                targets[arc] = endpointsA[e];
+                arcEdges[arc] = e;
+                durations[arc] = duration;
+            }
+        }
+
+        // Label the connected components with a depth first search, each node is pushed at most once
+        componentIds = new int[nodes.length];
+        Arrays.fill(componentIds, -1);
+        int[] stack = new int[nodes.length];
+        int components = 0;
+        for (int start = 0; start < nodes.length; start++) {
+            if (componentIds[start] >= 0) {
+                continue;
+            }
+            int size = 0;
+            stack[size++] = start;
+            componentIds[start] = components;
+            while (size > 0) {
+                int u = stack[--size];
+                for (int arc = offsets[u], last = offsets[u + 1]; arc < last; arc++) {
+                    if (componentIds[targets[arc]] < 0) {
+                        componentIds[targets[arc]] = components;
+                        stack[size++] = targets[arc];
+                    }
+                }
+            }
+            components++;
+        }
+        componentCount = components;
+
+        boolean bound = true;
+        for (int e = 0; e < edges.length && bound; e++) {
+            bound = isGeometricLowerBound(edges[e], edges[e].getDuration());
+        }
+        geometricLowerBound = bound;
+    }
+
+    private IndexedRegion(
+        IndexedRegion predecessor,
+        Region.Edge[] edges,
+        long[] durations,
+        boolean geometricLowerBound
+    ) {
+        this.region = predecessor.region;
+        this.nodes = predecessor.nodes;
+        this.edges = edges;
+        this.ids = predecessor.ids;
+        this.offsets = predecessor.offsets;
+        this.targets = predecessor.targets;
+        this.arcEdges = predecessor.arcEdges;
+        this.edgeArcs = predecessor.edgeArcs;
+        this.durations = durations;
+        this.componentIds = predecessor.componentIds;
+        this.componentCount = predecessor.componentCount;
+        this.geometricLowerBound = geometricLowerBound;
+    }
+
+    /**
+     * Creates a new {@link IndexedRegion} snapshot of the given {@link Region}.<p>
+     *
+     * Node ids are assigned in the order of the {@link Region.Node}s along a Hilbert curve covering the bounding box of
+     * their {@link Location}s, ties are broken by the natural order of the {@link Location}s. Edge ids are assigned in
+     * the iteration order of {@link Region#getEdges()}. Snapshots of {@link Region}s with the same {@link Location}s
+     * therefore assign the same ids to their nodes.
+     *
+     * @param region The {@link Region} to index.
+     * @return The created {@link IndexedRegion}.
+     */
+    public static IndexedRegion of(Region region) {
+        return new IndexedRegion(
+            region,
+            sortAlongHilbertCurve(region.getNodes()),
+            region.getEdges().toArray(new Region.Edge[0])
+        );
+    }
+
+    /**
+     * Creates a new {@link IndexedRegion} snapshot of the given {@link Region} whose node ids are assigned in the given
+     * order.
+     * @param region The {@link Region} to index.
+     * @param order The {@link Comparator} defining the order of the node ids.
+     * @return The created {@link IndexedRegion}.
+     */
+    static IndexedRegion of(Region region, Comparator<? super Region.Node> order) {
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        nodes.sort(order);
+        return new IndexedRegion(
+            region,
+            nodes.toArray(new Region.Node[0]),
+            region.getEdges().toArray(new Region.Edge[0])
+        );
+    }
+
+    /**
+     * Returns the given {@link Region.Node}s ordered along a Hilbert curve covering the bounding box of their
+     * {@link Location}s. The index of every node is computed once before sorting instead of on every comparison.
+     */
+    private static Region.Node[] sortAlongHilbertCurve(Collection<? extends Region.Node> nodes) {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Region.Node node : nodes) {
+            minX = Math.min(minX, node.getLocation().getX());
+            minY = Math.min(minY, node.getLocation().getY());
+            maxX = Math.max(maxX, node.getLocation().getX());
+            maxY = Math.max(maxY, node.getLocation().getY());
+        }
+        long extent = Math.max(1, Math.max((long) maxX - minX, (long) maxY - minY));
+
+        HilbertKey[] keys = new HilbertKey[nodes.size()];
+        int i = 0;
+        for (Region.Node node : nodes) {
+            keys[i++] = new HilbertKey(hilbertIndex(
+                (int) ((node.getLocation().getX() - (long) minX) * HILBERT_MAX / extent),
+                (int) ((node.getLocation().getY() - (long) minY) * HILBERT_MAX / extent)
+            ), node);
+        }
+        Arrays.sort(keys, Comparator.comparingLong(HilbertKey::index).thenComparing(key -> key.node().getLocation()));
+
+        Region.Node[] sorted = new Region.Node[keys.length];
+        for (i = 0; i < keys.length; i++) {
+            sorted[i] = keys[i].node();
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the position of the given cell on a Hilbert curve through a square grid of
+     * {@code (HILBERT_MAX + 1)²} cells.
+     */
+    private static long hilbertIndex(int x, int y) {
+        long index = 0;
+        for (int s = (HILBERT_MAX + 1) >>> 1; s > 0; s >>>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            // Rotate the quadrant, so the curve continues in the right direction
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = HILBERT_MAX - x;
+                    y = HILBERT_MAX - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * A {@link Region.Node} with its precomputed position on the Hilbert curve.
+     */
+    private record HilbertKey(long index, Region.Node node) {}
+
+    /**
+     * Creates the successor of this snapshot in which the given edge is replaced by an edge with the same endpoints
+     * and a different duration. The successor shares all arrays except the edges and durations with this snapshot.
+     * @param edge The id of the changed edge.
+     * @param replacement The {@link Region.Edge} replacing the changed edge.
+     * @return The successor of this snapshot.
+     * @throws IllegalStateException If this snapshot already has a successor.
+     */
+    synchronized IndexedRegion withDuration(int edge, Region.Edge replacement) {
+        if (successor != null) {
+            throw new IllegalStateException("The snapshot already has a successor");
+        }
+        long duration = replacement.getDuration();
+        Region.Edge[] newEdges = edges.clone();
+        newEdges[edge] = replacement;
+        long[] newDurations = durations.clone();
+        int arc = edgeArcs[edge];
+        newDurations[arc] = duration;
+        // The reverse arc of an edge that is not a loop is stored at its other endpoint
+        int nodeB = targets[arc];
+        for (int reverse = offsets[nodeB], last = offsets[nodeB + 1]; reverse < last; reverse++) {
+            if (arcEdges[reverse] == edge) {
+                newDurations[reverse] = duration;
+            }
+        }
+
+        IndexedRegion next = new IndexedRegion(this, newEdges, newDurations,
+            geometricLowerBound && isGeometricLowerBound(replacement, duration));
+        changedEdge = edge;
+        successor = next;
+        return next;
+    }
+
+    /**
+     * Returns true if the distance between the {@link Location}s of two nodes, as calculated by the
+     * {@link projekt.base.DistanceCalculator} of the {@link Region}, is a lower bound of the duration of every path
+     * between them. This holds for {@link Region}s created by a {@link Region.Builder}, whose durations are the rounded
+     * up distances, but may be violated once the duration of an edge has been decreased.
+     * @return True if distances are a lower bound of durations in this snapshot.
+     */
+    public boolean isGeometricLowerBound() {
+        return geometricLowerBound;
+    }
+
+    private boolean isGeometricLowerBound(Region.Edge edge, long duration) {
+        if (region.getDistanceCalculator() == null) {
+            return false;
+        }
+        double distance = region.getDistanceCalculator()
+            .calculateDistance(edge.getNodeA().getLocation(), edge.getNodeB().getLocation());
+        return duration >= distance - 1e-9;
+    }
+
+    /**
+     * Returns the snapshot that replaced this snapshot after the duration of {@link #getChangedEdge()} changed.
+     * @return The successor of this snapshot or null if this snapshot has not been replaced.
+     */
+    @Nullable IndexedRegion getSuccessor() {
+        return successor;
+    }
+
+    /**
+     * Returns the id of the edge whose duration differs between this snapshot and its successor.
+     * @return The id of the changed edge or -1 if this snapshot has not been replaced.
+     */
+    int getChangedEdge() {
+        return successor != null ? changedEdge : -1;
+    }
+
+    /**
+     * Returns the id of the given {@link Region.Edge}.
+     * @param edge The {@link Region.Edge} to get the id of.
+     * @return The id of the given {@link Region.Edge} or -1 if it is not part of this {@link IndexedRegion}.
+     */
+    public int indexOfEdge(Region.Edge edge) {
+        int node = indexOf(edge.getNodeA());
+        if (node < 0) {
+            return -1;
+        }
+        for (int arc = offsets[node], last = offsets[node + 1]; arc < last; arc++) {
+            if (edges[arcEdges[arc]] == edge) {
+                return arcEdges[arc];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the id of the edge between the nodes with the given ids. Only the arcs of the node with the smaller
+     * degree are scanned.
+     * @param nodeA The id of the first node.
+     * @param nodeB The id of the second node.
+     * @return The id of the edge between both nodes or -1 if they are not adjacent.
+     */
+    public int indexOfEdge(int nodeA, int nodeB) {
+        int from = getDegree(nodeA) <= getDegree(nodeB) ? nodeA : nodeB;
+        int to = from == nodeA ? nodeB : nodeA;
+        for (int arc = offsets[from], last = offsets[from + 1]; arc < last; arc++) {
+            if (targets[arc] == to) {
+                return arcEdges[arc];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the {@link Region.Edge} between the nodes with the given ids, see {@link #indexOfEdge(int, int)}.
+     * @param nodeA The id of the first node.
+     * @param nodeB The id of the second node.
+     * @return The {@link Region.Edge} between both nodes or null if they are not adjacent.
+     */
+    public @Nullable Region.Edge getEdge(int nodeA, int nodeB) {
+        int edge = indexOfEdge(nodeA, nodeB);
+        return edge >= 0 ? edges[edge] : null;
+    }
+
+    /**
+     * Returns the amount of connected components of this {@link IndexedRegion}. Two nodes are part of the same
+     * component if and only if there is a path between them.
+     * @return The amount of connected components.
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Returns the id of the connected component of the node with the given id.
+     * @param node The id of the node.
+     * @return The id of the component of the node, in {@code [0, getComponentCount())}.
+     */
+    public int getComponentId(int node) {
+        return componentIds[node];
+    }
+
+    /**
+     * Returns the id of the connected component of the given {@link Region.Node}.
+     * @param node The {@link Region.Node}.
+     * @return The id of the component of the {@link Region.Node} or -1 if it is not part of this {@link IndexedRegion}.
+     */
+    public int getComponentId(Region.Node node) {
+        int id = indexOf(node);
+        return id >= 0 ? componentIds[id] : -1;
+    }
+
+    /**
+     * Returns true if there is a path between the nodes with the given ids. Only the component ids are compared, so
+     * searches for paths that do not exist can be rejected in {@code O(1)}.
+     * @param nodeA The id of the first node.
+     * @param nodeB The id of the second node.
+     * @return True if there is a path between both nodes.
+     */
+    public boolean isConnected(int nodeA, int nodeB) {
+        return componentIds[nodeA] == componentIds[nodeB];
+    }
+
+    /**
+     * Returns true if there is a path between the {@link Region.Node}s at the given {@link Location}s.
+     * @param locationA The {@link Location} of the first {@link Region.Node}.
+     * @param locationB The {@link Location} of the second {@link Region.Node}.
+     * @return True if both {@link Location}s belong to {@link Region.Node}s of this {@link IndexedRegion} and there is
+     * a path between them.
+     */
+    public boolean isConnected(Location locationA, Location locationB) {
+        int nodeA = indexOf(locationA);
+        int nodeB = indexOf(locationB);
+        return nodeA >= 0 && nodeB >= 0 && isConnected(nodeA, nodeB);
+    }
+
+    /**
+     * Returns the id of the given {@link Region.Node}.
+     * @param node The {@link Region.Node} to get the id of.
+     * @return The id of the given {@link Region.Node}.
+     * @throws IllegalArgumentException If the given {@link Region.Node} is not part of this {@link IndexedRegion}.
+     */
+    int requireIndexOf(Region.Node node) {
+        int id = indexOf(node);
+        if (id < 0) {
+            throw new IllegalArgumentException("Node " + node + " is not part of the region");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the {@link Region} this {@link IndexedRegion} was created from.
+     * @return The {@link Region} this {@link IndexedRegion} was created from.
+     */
+    public Region getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the amount of {@link Region.Node}s in this {@link IndexedRegion}.
+     * @return The amount of {@link Region.Node}s in this {@link IndexedRegion}.
+     */
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the amount of {@link Region.Edge}s in this {@link IndexedRegion}.
+     * @return The amount of {@link Region.Edge}s in this {@link IndexedRegion}.
+     */
+    public int getEdgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Returns the amount of directed arcs in this {@link IndexedRegion}.
+     * @return The amount of directed arcs in this {@link IndexedRegion}.
+     */
+    public int getArcCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the id of the given {@link Region.Node}.
+     * @param node The {@link Region.Node} to get the id of.
+     * @return The id of the given {@link Region.Node} or -1 if there is no {@link Region.Node} at its {@link Location}.
+     */
+    public int indexOf(Region.Node node) {
+        return indexOf(node.getLocation());
+    }
+
+    /**
+     * Returns the id of the {@link Region.Node} at the given {@link Location}.
+     * @param location The {@link Location} of the {@link Region.Node}.
+     * @return The id of the {@link Region.Node} at the given {@link Location} or -1 if there is none.
+     */
+    public int indexOf(Location location) {
+        Integer id = ids.get(location);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the {@link Region.Node} with the given id.
+     * @param id The id of the {@link Region.Node}.
+     * @return The {@link Region.Node} with the given id.
+     */
+    public Region.Node getNode(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * Returns the {@link Region.Edge} with the given id.
+     * @param id The id of the {@link Region.Edge}.
+     * @return The {@link Region.Edge} with the given id.
+     */
+    public Region.Edge getEdge(int id) {
+        return edges[id];
+    }
+
+    /**
+     * Returns the position of the first arc leaving the node with the given id.
+     * @param node The id of the node. May be equal to {@link #getNodeCount()} to obtain {@link #getArcCount()}.
+     * @return The position of the first arc leaving the node with the given id.
+     */
+    public int getFirstArc(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Returns the amount of arcs leaving the node with the given id.
+     * @param node The id of the node.
+     * @return The amount of arcs leaving the node with the given id.
+     */
+    public int getDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * Returns the id of the node the given arc points to.
+     * @param arc The position of the arc.
+     * @return The id of the node the given arc points to.
+     */
+    public int getArcTarget(int arc) {
+        return targets[arc];
+    }
+
+    /**
+     * Returns the id of the {@link Region.Edge} the given arc belongs to.
+     * @param arc The position of the arc.
+     * @return The id of the {@link Region.Edge} the given arc belongs to.
+     */
+    public int getArcEdge(int arc) {
+        return arcEdges[arc];
+    }
+
+    /**
+     * Returns the duration of the given arc.
+     * @param arc The position of the arc.
+     * @return The duration of the given arc.
+     */
+    public long getArcDuration(int arc) {
+        return durations[arc];
+    }
+
+    /**
+     * Returns the id of the first node of the given edge, i.e. the node of {@link Region.Edge#getNodeA()}.
+     * @param edge The id of the edge.
+     * @return The id of the first node of the given edge.
+     */
+    public int getEdgeNodeA(int edge) {
+        // The arc of the edge belongs to the last node whose arcs start at or before it
+        int arc = edgeArcs[edge];
+        int low = 0;
+        int high = nodes.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= arc) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the id of the second node of the given edge, i.e. the node of {@link Region.Edge#getNodeB()}.
+     * @param edge The id of the edge.
+     * @return The id of the second node of the given edge.
+     */
+    public int getEdgeNodeB(int edge) {
+        return targets[edgeArcs[edge]];
+    }
+
+    /**
+     * Returns the duration of the given edge in this snapshot.
+     * @param edge The id of the edge.
+     * @return The duration of the given edge.
+     */
+    public long getEdgeDuration(int edge) {
+        return durations[edgeArcs[edge]];
+    }
+}
@@ -0,0 +1,179 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.DistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link PathCalculator} that calculates the shortest path between two nodes using A* with landmark based lower
+ * bounds (ALT).<p>
+ *
+ * For every {@link Region}, a few landmarks are selected and the distances from them to all nodes are calculated once.
+ * The heuristic is the larger one of the triangle inequality bound of the {@link Landmarks} and the distance calculated
+ * by the {@link DistanceCalculator} of the {@link Region}, if the latter is a lower bound, see
+ * {@link IndexedRegion#isGeometricLowerBound()}. On winding roads the landmark bound is much tighter than the
+ * geometric one. The landmarks of the most recently used {@link Region} are kept, even while the durations of its
+ * edges only increase, so a {@link LandmarkPathCalculator} should not be shared by {@link VehicleManager}s of
+ * different {@link Region}s. Paths and single pair distances are read from the same search. Searches for all paths
+ * to a node are performed by {@link IndexedDijkstraPathCalculator}.
+ */
+public class LandmarkPathCalculator extends IndexedDijkstraPathCalculator {
+
+    /**
+     * The amount of landmarks used if no other amount is given.
+     */
+    public static final int DEFAULT_LANDMARK_COUNT = 8;
+
+    /**
+     * Tolerance for rounding errors of the {@link DistanceCalculator} that would otherwise make the heuristic overestimate.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private final int landmarkCount;
+    private volatile @Nullable Landmarks landmarks;
+
+    /**
+     * Creates a new {@link LandmarkPathCalculator} that uses {@link #DEFAULT_LANDMARK_COUNT} landmarks.
+     */
+    public LandmarkPathCalculator() {
+        this(DEFAULT_LANDMARK_COUNT);
+    }
+
+    /**
+     * Creates a new {@link LandmarkPathCalculator} that uses the given amount of landmarks.
+     * @param landmarkCount The amount of landmarks per {@link Region}.
+     * @throws IllegalArgumentException If the given amount is not positive.
+     */
+    public LandmarkPathCalculator(int landmarkCount) {
+        if (landmarkCount <= 0) {
+            throw new IllegalArgumentException("The amount of landmarks must be positive");
+        }
+        this.landmarkCount = landmarkCount;
+    }
+
+    /**
+     * Returns the amount of landmarks used per {@link Region}.
+     * @return The amount of landmarks used per {@link Region}.
+     */
+    public int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    /**
+     * Selects the landmarks of the given {@link Region} if they have not been selected yet.
+     * @param region The {@link Region} to preprocess.
+     */
+    @Override
+    public void preprocess(Region region) {
+        getLandmarks(region.getIndexedRegion());
+    }
+
+    @Override
+    public Deque<Region.Node> getPath(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        int target = graph.requireIndexOf(start);
+
+        if (graph.requireIndexOf(end) == target) {
+            return new ArrayDeque<>();
+        }
+        return search(graph, start, end).walkToSource(graph, target);
+    }
+
+    @Override
+    public long getDistance(Region.Node start, Region.Node end) {
+        IndexedRegion graph = end.getRegion().getIndexedRegion();
+        int target = graph.requireIndexOf(start);
+
+        if (graph.requireIndexOf(end) == target) {
+            return 0;
+        }
+        return search(graph, start, end).getDistance(target);
+    }
+
+    /**
+     * Runs the goal directed search from the given end towards the given start, so the predecessors lead from start
+     * to end.
+     * @param graph The {@link IndexedRegion} of the searched {@link Region}.
+     * @param start The start of the path, which is the goal of the search.
+     * @param end The end of the path, which is the source of the search.
+     * @return The workspace of the search, in which the start is reached with its final distance.
+     * @throws IllegalArgumentException If there is no path from start to end.
+     */
+    private DijkstraWorkspace search(IndexedRegion graph, Region.Node start, Region.Node end) {
+        int source = graph.requireIndexOf(end);
+        int target = graph.requireIndexOf(start);
+        if (!graph.isConnected(source, target)) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+        }
+
+        Landmarks landmarks = getLandmarks(graph);
+        long[] targetDistances = new long[landmarks.getCount()];
+        landmarks.copyDistances(target, targetDistances);
+
+        // The geometric bound only holds as long as no duration has been decreased below the distance of its edge
+        @Nullable DistanceCalculator distanceCalculator = graph.isGeometricLowerBound()
+            ? end.getRegion().getDistanceCalculator() : null;
+        Location goal = start.getLocation();
+        DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+        workspace.improve(source, 0, -1);
+        workspace.queue.push(source, estimate(landmarks, targetDistances, distanceCalculator, graph, source, goal));
+
+        while (!workspace.queue.isEmpty()) {
+            int u = workspace.queue.poll();
+            if (u == target) {
+                return workspace;
+            }
+            workspace.settle(u);
+            long distance = workspace.getDistance(u);
+            for (int arc = graph.getFirstArc(u), last = graph.getFirstArc(u + 1); arc < last; arc++) {
+                int v = graph.getArcTarget(arc);
+                long candidate = distance + graph.getArcDuration(arc);
+                if (!workspace.isSettled(v) && workspace.improve(v, candidate, u)) {
+                    workspace.queue.push(v, candidate + estimate(landmarks, targetDistances, distanceCalculator, graph, v, goal));
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+    }
+
+    /**
+     * Estimates the duration of the shortest path between the given node and the goal without overestimating it.
+     */
+    private static long estimate(
+        Landmarks landmarks,
+        long[] targetDistances,
+        @Nullable DistanceCalculator distanceCalculator,
+        IndexedRegion graph,
+        int node,
+        Location goal
+    ) {
+        long landmarkBound = landmarks.lowerBound(node, targetDistances);
+        if (distanceCalculator == null) {
+            return landmarkBound;
+        }
+        long geometric = (long) Math.floor(distanceCalculator.calculateDistance(graph.getNode(node).getLocation(), goal) - EPSILON);
+        return Math.max(Math.max(0, geometric), landmarkBound);
+    }
+
+    private Landmarks getLandmarks(IndexedRegion graph) {
+        Landmarks current = landmarks;
+        if (current == null || current.getGraph() != graph) {
+            synchronized (this) {
+                current = landmarks;
+                if (current == null || current.getGraph() != graph) {
+                    // Increased durations keep the bounds valid, so only a decrease or another region selects again
+                    current = current != null ? current.reuseFor(graph) : null;
+                    if (current == null) {
+                        current = Landmarks.select(graph, landmarkCount);
+                    }
+                    landmarks = current;
+                }
+            }
+        }
+        return current;
+    }
+}
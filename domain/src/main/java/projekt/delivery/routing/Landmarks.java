@@ -0,0 +1,178 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A set of landmarks of an {@link IndexedRegion} together with the shortest path distances from every landmark to
+ * every node.<p>
+ *
+ * Since every {@link Region.Edge} can be traversed in both directions, the distance from a landmark to a node equals
+ * the distance from the node to the landmark. By the triangle inequality, {@code |d(l, t) - d(l, v)|} is a lower
+ * bound of the distance between {@code v} and {@code t} for every landmark {@code l}. These bounds stay valid if the
+ * duration of edges increases after the distances have been calculated.<p>
+ *
+ * {@link Landmarks} are immutable after construction and can be used by multiple threads at once.
+ */
+final class Landmarks {
+
+    private final IndexedRegion graph;
+    private final int[] landmarks;
+    private final int count;
+
+    /**
+     * The distances from every landmark to every node, stored node by node so the bounds of a node are adjacent.
+     */
+    private final long[] distances;
+
+    private Landmarks(IndexedRegion graph, int[] landmarks, long[] distances) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.count = landmarks.length;
+        this.distances = distances;
+    }
+
+    /**
+     * Selects the given amount of landmarks of the given graph using farthest point selection.<p>
+     *
+     * The selection is seeded with the restaurants of the {@link Region}, which are the start or end of most paths,
+     * so the first landmark is the node farthest away from all restaurants. Every further landmark is the node farthest
+     * away from all previously selected landmarks. Nodes that are not reachable from any landmark are preferred, so
+     * every connected component gets a landmark if possible.
+     *
+     * @param graph The graph to select the landmarks of.
+     * @param count The maximum amount of landmarks to select.
+     * @return The selected {@link Landmarks}.
+     */
+    static Landmarks select(IndexedRegion graph, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The amount of landmarks must be positive");
+        }
+        int nodeCount = graph.getNodeCount();
+        count = Math.min(count, nodeCount);
+        int[] landmarks = new int[count];
+        long[] distances = new long[nodeCount * count];
+        long[] closest = new long[nodeCount];
+
+        DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, nodeCount);
+        int seed = -1;
+        for (int node = 0; node < nodeCount; node++) {
+            if (graph.getNode(node) instanceof Region.Restaurant) {
+                workspace.improve(node, 0, -1);
+                workspace.queue.push(node, 0);
+                seed = node;
+            }
+        }
+        if (seed >= 0) {
+            // All restaurants are already queued as sources, so this runs a single search from all of them
+            workspace.run(graph, seed, -1);
+            for (int node = 0; node < nodeCount; node++) {
+                closest[node] = workspace.getDistance(node);
+            }
+        } else {
+            Arrays.fill(closest, DijkstraWorkspace.INFINITY);
+        }
+
+        for (int i = 0; i < count; i++) {
+            int landmark = 0;
+            for (int node = 1; node < nodeCount; node++) {
+                if (closest[node] > closest[landmark]) {
+                    landmark = node;
+                }
+            }
+            landmarks[i] = landmark;
+
+            workspace = DijkstraWorkspace.acquire(0, nodeCount);
+            workspace.run(graph, landmark, -1);
+            for (int node = 0; node < nodeCount; node++) {
+                long distance = workspace.getDistance(node);
+                distances[node * count + i] = distance;
+                closest[node] = Math.min(closest[node], distance);
+            }
+        }
+
+        return new Landmarks(graph, landmarks, distances);
+    }
+
+    /**
+     * Returns these {@link Landmarks} for the given later snapshot of their graph, if their lower bounds are still
+     * valid there. This is the case if the given snapshot is reached by following the successors of the graph of these
+     * {@link Landmarks} and the duration of every changed edge increased along the way, since no distance can become
+     * shorter then. The distances are shared with the returned {@link Landmarks}.
+     * @param successor The later snapshot of the graph of these {@link Landmarks}.
+     * @return The {@link Landmarks} for the given snapshot or null if they have to be selected again after a duration
+     * decreased or the given snapshot is not a successor of the graph of these {@link Landmarks}.
+     */
+    @Nullable Landmarks reuseFor(IndexedRegion successor) {
+        IndexedRegion current = graph;
+        while (current != successor) {
+            @Nullable IndexedRegion next = current.getSuccessor();
+            if (next == null) {
+                return null;
+            }
+            int edge = current.getChangedEdge();
+            if (next.getEdgeDuration(edge) < current.getEdgeDuration(edge)) {
+                return null;
+            }
+            current = next;
+        }
+        return current == graph ? this : new Landmarks(successor, landmarks, distances);
+    }
+
+    /**
+     * Returns the graph these {@link Landmarks} belong to.
+     * @return The graph these {@link Landmarks} belong to.
+     */
+    IndexedRegion getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the amount of landmarks.
+     * @return The amount of landmarks.
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the id of the landmark with the given index.
+     * @param index The index of the landmark, in {@code [0, getCount())}.
+     * @return The id of the landmark node.
+     */
+    int getLandmark(int index) {
+        return landmarks[index];
+    }
+
+    /**
+     * Copies the distances from all landmarks to the given target into the given array, so they do not have to be
+     * looked up again for every call of {@link #lowerBound(int, long[])}.
+     * @param target The id of the target node.
+     * @param targetDistances The array to store the distances in. Its length must be at least {@link #getCount()}.
+     */
+    void copyDistances(int target, long[] targetDistances) {
+        System.arraycopy(distances, target * count, targetDistances, 0, count);
+    }
+
+    /**
+     * Returns a lower bound of the distance between the given node and the target whose distances were copied by
+     * {@link #copyDistances(int, long[])}.
+     * @param node The id of the node.
+     * @param targetDistances The distances from all landmarks to the target.
+     * @return A lower bound of the distance between the given node and the target.
+     */
+    long lowerBound(int node, long[] targetDistances) {
+        long bound = 0;
+        int offset = node * count;
+        for (int i = 0; i < count; i++) {
+            long nodeDistance = distances[offset + i];
+            long targetDistance = targetDistances[i];
+            // A landmark that does not reach both nodes does not provide a bound
+            if (nodeDistance != DijkstraWorkspace.INFINITY && targetDistance != DijkstraWorkspace.INFINITY) {
+                bound = Math.max(bound, Math.abs(targetDistance - nodeDistance));
+            }
+        }
+        return bound;
+    }
+}
@@ -0,0 +1,83 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+import projekt.base.Location;
+
+/**
+ * An open addressing hash table mapping a pair of {@link Location}s to a value.<p>
+ *
+ * Keys are stored as the packed coordinates returned by {@link Location#toLong()} in two primitive arrays, so a lookup
+ * neither boxes nor follows pointers to {@link Location}s and probes a single table, in contrast to nested
+ * {@link java.util.Map}s. Collisions are resolved by linear probing. Entries cannot be removed, since the tables are
+ * only built once for a sealed {@link RegionImpl}. Single {@link Location}s are stored as the pair of the location with
+ * itself.
+ *
+ * @param <V> The type of the values.
+ */
+final class LocationTable<V> {
+
+    private final long[] keysA;
+    private final long[] keysB;
+    private final Object[] values;
+    private final int mask;
+
+    /**
+     * Creates a new, empty {@link LocationTable} that holds the given amount of entries with a load factor of at most
+     * 0.5.
+     * @param expectedSize The maximum amount of entries.
+     */
+    LocationTable(int expectedSize) {
+        int capacity = 2;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        keysA = new long[capacity];
+        keysB = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Maps the given pair of {@link Location}s to the given value, replacing any previous value.
+     * @param locationA The first {@link Location} of the pair.
+     * @param locationB The second {@link Location} of the pair.
+     * @param value The value.
+     */
+    void put(Location locationA, Location locationB, V value) {
+        long keyA = locationA.toLong();
+        long keyB = locationB.toLong();
+        int slot = slot(keyA, keyB);
+        while (values[slot] != null && (keysA[slot] != keyA || keysB[slot] != keyB)) {
+            slot = (slot + 1) & mask;
+        }
+        keysA[slot] = keyA;
+        keysB[slot] = keyB;
+        values[slot] = value;
+    }
+
+    /**
+     * Returns the value of the given pair of {@link Location}s.
+     * @param locationA The first {@link Location} of the pair.
+     * @param locationB The second {@link Location} of the pair.
+     * @return The value of the pair or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable V get(Location locationA, Location locationB) {
+        long keyA = locationA.toLong();
+        long keyB = locationB.toLong();
+        for (int slot = slot(keyA, keyB); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keysA[slot] == keyA && keysB[slot] == keyB) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    private int slot(long keyA, long keyB) {
+        long hash = keyA * 0x9E3779B97F4A7C15L + keyB;
+        hash ^= hash >>> 32;
+        hash *= 0xD6E8FEB86659FD93L;
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+}
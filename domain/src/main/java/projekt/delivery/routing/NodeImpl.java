@@ -3,8 +3,10 @@ package projekt.delivery.routing;
 import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -16,6 +18,9 @@ class NodeImpl implements Region.Node {
     protected final Region region;
     protected final String name;
     protected final Location location;
+    private @Nullable Adjacency adjacency;
+    private int hashCode;
+    private boolean hashed;
 
     /**
      * Creates a new {@link NodeImpl} instance.
@@ -57,49 +62,93 @@ class NodeImpl implements Region.Node {
 
     @Override
     public @Nullable Region.Edge getEdge(Region.Node other) {
-        Collection<Region.Edge> edges = getRegion().getEdges();
-        for (Region.Edge edge : edges) {
-            if (edge.getNodeA() == other || edge.getNodeB() == other) {
-                return edge;
-            }
+        if (adjacency != null) {
+            return adjacency.edgesByLocation.get(other.getLocation());
         }
-        return null;
+        return connections.contains(other.getLocation()) ? region.getEdge(location, other.getLocation()) : null;
     }
 
     @Override
     public Set<Region.Node> getAdjacentNodes() {
-        Set<Region.Node> returnValue = new HashSet<>();
+        return adjacency != null ? adjacency.nodes : computeAdjacency().nodes;
+    }
 
-        if(connections.contains(location)){ //von sich selbst
-            returnValue.add(this);
-        }
+    @Override
+    public Set<Region.Edge> getAdjacentEdges() {
+        return adjacency != null ? adjacency.edges : computeAdjacency().edges;
+    }
 
-        for(Location conLocs : connections){
-            Region.Node conNodes = region.getNode(conLocs); //wird nicht stimmen //TODO
-            if(conNodes != null){
-                returnValue.add(conNodes);
+    /**
+     * Precomputes the hash code of this {@link NodeImpl}.<p>
+     *
+     * Must only be called after all {@link EdgeImpl}s connected to this {@link NodeImpl} were added to its
+     * {@link Region}. Until then, the hash code is computed on every call, since the connections may still change.
+     */
+    void initHashCode() {
+        hashCode = computeHashCode();
+        hashed = true;
+    }
+
+    /**
+     * Precomputes the adjacent {@link Region.Node}s and {@link Region.Edge}s of this {@link NodeImpl} from the arcs of
+     * the given snapshot of its {@link Region}, instead of looking up every connection in the {@link Region}.<p>
+     *
+     * Must only be called after all {@link EdgeImpl}s connected to this {@link NodeImpl} were added to its
+     * {@link Region}. Until then, all adjacency queries are answered by looking up the {@link Region}.
+     *
+     * @param graph The {@link IndexedRegion} snapshot of the {@link Region} of this {@link NodeImpl}.
+     * @param id The id of this {@link NodeImpl} in the snapshot.
+     */
+    void initAdjacency(IndexedRegion graph, int id) {
+        Map<Location, Region.Edge> edges = new HashMap<>(connections.size() * 2);
+        Set<Region.Node> nodes = new HashSet<>(connections.size() * 2);
+
+        for (int arc = graph.getFirstArc(id), last = graph.getFirstArc(id + 1); arc < last; arc++) {
+            Region.Node node = graph.getNode(graph.getArcTarget(arc));
+            if (connections.contains(node.getLocation())) {
+                edges.put(node.getLocation(), graph.getEdge(graph.getArcEdge(arc)));
+                nodes.add(node);
             }
         }
 
-        return returnValue;
+        adjacency = toAdjacency(edges, nodes);
     }
 
-    @Override
-    public Set<Region.Edge> getAdjacentEdges() {
-        Set<Region.Edge> returnValue = new HashSet<>();
-
-        if (connections.contains(location)) { //von sich selbst
-            returnValue.add(this.getEdge(this));
+    /**
+     * Replaces the connected {@link Region.Edge} with the same endpoints as the given one in the precomputed adjacency
+     * of this {@link NodeImpl}, after its {@link Region} swapped in a new {@link EdgeImpl} with a different duration.
+     * @param edge The new {@link Region.Edge} connected to this {@link NodeImpl}.
+     */
+    void replaceEdge(EdgeImpl edge) {
+        Adjacency current = adjacency;
+        if (current == null) {
+            return;
         }
+        Location other = location.equals(edge.getLocationA()) ? edge.getLocationB() : edge.getLocationA();
+        Map<Location, Region.Edge> edges = new HashMap<>(current.edgesByLocation);
+        edges.put(other, edge);
+        adjacency = new Adjacency(edges, current.nodes, Collections.unmodifiableSet(new HashSet<>(edges.values())));
+    }
+
+    private Adjacency computeAdjacency() {
+        Map<Location, Region.Edge> edges = new HashMap<>(connections.size() * 2);
+        Set<Region.Node> nodes = new HashSet<>(connections.size() * 2);
 
-        for (Location conLocs : connections) {
-            Region.Node conNodes = region.getNode(conLocs);
-            if (conNodes != null) {
-                returnValue.add(conNodes.getEdge(conNodes)); //wird nicht stimmen //TODO
+        for (Location connection : connections) {
+            Region.Node node = region.getNode(connection);
+            Region.Edge edge = region.getEdge(location, connection);
+            if (node != null && edge != null) {
+                edges.put(connection, edge);
+                nodes.add(node);
             }
         }
 
-        return returnValue;
+        return toAdjacency(edges, nodes);
+    }
+
+    private static Adjacency toAdjacency(Map<Location, Region.Edge> edges, Set<Region.Node> nodes) {
+        return new Adjacency(edges, Collections.unmodifiableSet(nodes),
+            Collections.unmodifiableSet(new HashSet<>(edges.values())));
     }
 
     @Override
@@ -124,6 +173,10 @@ class NodeImpl implements Region.Node {
 
     @Override
     public int hashCode() {
+        return hashed ? hashCode : computeHashCode();
+    }
+
+    private int computeHashCode() {
         return Objects.hash(name, location, connections);
     }
 
@@ -131,4 +184,12 @@ class NodeImpl implements Region.Node {
     public String toString() {
         return "NodeImpl(name='" + name.toString() + "', location='" + location.toString() + "', connections='" + connections.toString() + "')";
     }
+
+    /**
+     * The precomputed neighborhood of a {@link NodeImpl}.
+     * @param edgesByLocation The connected {@link Region.Edge}s mapped by the {@link Location} of the opposite {@link Region.Node}.
+     * @param nodes All adjacent {@link Region.Node}s.
+     * @param edges All connected {@link Region.Edge}s.
+     */
+    private record Adjacency(Map<Location, Region.Edge> edgesByLocation, Set<Region.Node> nodes, Set<Region.Edge> edges) {}
 }
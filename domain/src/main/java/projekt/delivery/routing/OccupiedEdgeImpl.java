@@ -16,6 +16,15 @@ class OccupiedEdgeImpl extends AbstractOccupied<Region.Edge> {
         super(edge, vehicleManager);
     }
 
+    /**
+     * Replaces the represented {@link Region.Edge} after its {@link Region} swapped in a new {@link Region.Edge} with
+     * a different duration. The {@link Vehicle}s on the {@link Region.Edge} stay where they are.
+     * @param edge The new {@link Region.Edge}.
+     */
+    void replaceComponent(Region.Edge edge) {
+        component = edge;
+    }
+
     @Override
     public void tick(long currentTick) {
         // it is important to create a copy here. The move method in vehicle will probably modify this map
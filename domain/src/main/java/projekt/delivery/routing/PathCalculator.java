@@ -1,6 +1,7 @@
 package projekt.delivery.routing;
 
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -17,6 +18,68 @@ public interface PathCalculator {
      */
     Deque<Region.Node> getPath(Region.Node start, Region.Node end);
 
+    /**
+     * Calculates the shortest path from {@code start} to {@code end} as an immutable {@link Route}.<p>
+     *
+     * In contrast to {@link #getPath(Region.Node, Region.Node)}, the returned {@link Route} may be shared, e.g. by a
+     * cache. The default implementation copies the result of {@link #getPath(Region.Node, Region.Node)}.
+     *
+     * @param start The start {@link Region.Node}
+     * @param end   The end {@link Region.Node}
+     * @return A {@link Route} of nodes (excluding start and including end) that represent a path from start to end
+     */
+    default Route getRoute(Region.Node start, Region.Node end) {
+        return Route.of(getPath(start, end));
+    }
+
+    /**
+     * Calculates the duration of the shortest path from {@code start} to {@code end} without materializing the path,
+     * if the implementation allows it.<p>
+     *
+     * The default implementation sums the durations of the {@link Region.Edge}s of
+     * {@link #getPath(Region.Node, Region.Node)}.
+     *
+     * @param start The start {@link Region.Node}
+     * @param end   The end {@link Region.Node}
+     * @return The sum of the durations of all {@link Region.Edge}s of the shortest path from start to end
+     * @throws IllegalArgumentException If there is no path from start to end
+     */
+    default long getDistance(Region.Node start, Region.Node end) {
+        long distance = 0;
+        Region.Node previous = start;
+        for (Region.Node next : getPath(start, end)) {
+            Region.Edge edge = previous.getEdge(next);
+            if (edge == null) {
+                throw new IllegalArgumentException("No path from %s to %s".formatted(start, end));
+            }
+            distance += edge.getDuration();
+            previous = next;
+        }
+        return distance;
+    }
+
+    /**
+     * Calculates the durations of the shortest paths from every node of {@code sources} to every node of
+     * {@code targets}.<p>
+     *
+     * The default implementation reads the distances from one {@link ShortestPathTree} per target.
+     *
+     * @param sources The start {@link Region.Node}s
+     * @param targets The end {@link Region.Node}s
+     * @return A table whose entry {@code [i][j]} is the duration of the shortest path from {@code sources.get(i)} to
+     * {@code targets.get(j)} or {@link ShortestPathTree#UNREACHABLE} if there is no such path
+     */
+    default long[][] getDistanceTable(List<? extends Region.Node> sources, List<? extends Region.Node> targets) {
+        long[][] table = new long[sources.size()][targets.size()];
+        for (int j = 0; j < targets.size(); j++) {
+            ShortestPathTree tree = getShortestPathTree(targets.get(j));
+            for (int i = 0; i < sources.size(); i++) {
+                table[i][j] = tree.getDistance(sources.get(i));
+            }
+        }
+        return table;
+    }
+
     /**
      * Calculates the shortest path from every node in the region to {@code end}.
      *
@@ -25,4 +88,29 @@ public interface PathCalculator {
      * (excluding start and including end) that represent the path from start to end
      */
     Map<Region.Node, Deque<Region.Node>> getAllPathsTo(Region.Node end);
+
+    /**
+     * Calculates the shortest path from every node in the region to {@code end} and returns them as a compact
+     * {@link ShortestPathTree}.<p>
+     *
+     * The default implementation converts the result of {@link #getAllPathsTo(Region.Node)}. Implementations that
+     * calculate a predecessor tree anyway should override it to avoid materializing every path.
+     *
+     * @param end The end {@link Region.Node} of all paths.
+     * @return The {@link ShortestPathTree} rooted at {@code end}.
+     */
+    default ShortestPathTree getShortestPathTree(Region.Node end) {
+        return ShortestPathTree.of(end, getAllPathsTo(end));
+    }
+
+    /**
+     * Computes the auxiliary data of this {@link PathCalculator} for the given {@link Region} ahead of the first query,
+     * e.g. a contraction hierarchy or the distances to landmarks.<p>
+     *
+     * The default implementation does nothing, as most {@link PathCalculator}s answer queries without preprocessing.
+     *
+     * @param region The {@link Region} to preprocess.
+     */
+    default void preprocess(Region region) {
+    }
 }
@@ -7,6 +7,7 @@ import projekt.base.Location;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 /**
  * Represents A Region using a graph.
@@ -21,6 +22,25 @@ public interface Region {
         return new RegionBuilderImpl();
     }
 
+    /**
+     * Returns a new {@link Region.BulkBuilder} instance.
+     * @return A new {@link Region.BulkBuilder} instance.
+     */
+    static BulkBuilder bulkBuilder() {
+        return new RegionBulkBuilderImpl(0, 0);
+    }
+
+    /**
+     * Returns a new {@link Region.BulkBuilder} instance with room for the given amounts of {@link Region.Node}s and
+     * {@link Region.Edge}s.
+     * @param nodeCapacity The expected amount of {@link Region.Node}s.
+     * @param edgeCapacity The expected amount of {@link Region.Edge}s.
+     * @return A new {@link Region.BulkBuilder} instance.
+     */
+    static BulkBuilder bulkBuilder(int nodeCapacity, int edgeCapacity) {
+        return new RegionBulkBuilderImpl(nodeCapacity, edgeCapacity);
+    }
+
     /**
      * Returns the {@link Region.Node} at the given {@link Location}.
      * @param location The {@link Location} of the returned {@link Region.Node}.
@@ -58,12 +78,57 @@ public interface Region {
      */
     Collection<Edge> getEdges();
 
+    /**
+     * Performs the given action for the id of every {@link Region.Edge} of the current {@link IndexedRegion} snapshot
+     * of this {@link Region} in ascending order. Bulk consumers can read the endpoints and durations of the edges from
+     * the snapshot by their ids without iterating over {@link #getEdges()}.
+     * @param action The action to perform for every edge id.
+     */
+    default void forEachEdge(IntConsumer action) {
+        IndexedRegion graph = getIndexedRegion();
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            action.accept(edge);
+        }
+    }
+
     /**
      * Returns the {@link DistanceCalculator} used by this {@link Region}.
      * @return The {@link DistanceCalculator} used by this {@link Region}.
      */
     DistanceCalculator getDistanceCalculator();
 
+    /**
+     * Changes the duration of the given {@link Region.Edge}, e.g. because of road works or congestion.<p>
+     *
+     * {@link Region.Edge}s are immutable, so the {@link Region.Edge} is replaced by a new one with the same name and
+     * endpoints, which is returned by {@link #getEdge(Location, Location)} and the adjacent {@link Region.Node}s from
+     * now on. The {@link IndexedRegion} snapshot of this {@link Region} is replaced by a successor containing the new
+     * {@link Region.Edge}, so {@link PathCalculator}s working on snapshots notice the change. Queued paths of
+     * {@link Vehicle}s are not changed, use {@link VehicleManager#updateDuration(Region.Edge, long)} to reroute them
+     * as well.
+     *
+     * @param edge The {@link Region.Edge} to change or a {@link Region.Edge} it replaced earlier.
+     * @param duration The new duration of the {@link Region.Edge}.
+     * @throws IllegalArgumentException If the {@link Region.Edge} is not part of this {@link Region} or the duration
+     *                                  is negative.
+     * @throws UnsupportedOperationException If this {@link Region} does not support changing durations.
+     */
+    default void updateDuration(Edge edge, long duration) {
+        throw new UnsupportedOperationException("The durations of this region cannot be changed");
+    }
+
+    /**
+     * Returns a dense, integer indexed snapshot of this {@link Region}.<p>
+     *
+     * The snapshot allows graph traversals to work on primitive arrays instead of {@link Region.Node} and
+     * {@link Region.Edge} objects. Implementations are encouraged to create the snapshot only once.
+     *
+     * @return An {@link IndexedRegion} representing this {@link Region}.
+     */
+    default IndexedRegion getIndexedRegion() {
+        return IndexedRegion.of(this);
+    }
+
     /**
      * Represents a component of the underlying graph.
      * @param <C> The type of the represented component.
@@ -282,4 +347,71 @@ public interface Region {
          */
         Region build();
     }
+
+    /**
+     * A {@link BulkBuilder} for constructing large {@link Region}s, e.g. when importing a map.<p>
+     *
+     * In contrast to a {@link Builder}, components can only be added, not checked or removed, and the constructed
+     * {@link Region} is created in a single pass over arrays of the added components. Duplicate names and duplicate
+     * {@link Node}s are rejected when they are added, duplicate {@link Edge}s and {@link Edge}s to missing
+     * {@link Node}s are rejected by {@link #build()}.
+     */
+    interface BulkBuilder {
+
+        /**
+         * Sets the used {@link DistanceCalculator} to the given {@link DistanceCalculator}.
+         * @param distanceCalculator The new {@link DistanceCalculator}.
+         * @return The current {@link BulkBuilder}.
+         */
+        BulkBuilder distanceCalculator(DistanceCalculator distanceCalculator);
+
+        /**
+         * Adds a new {@link Node} to the constructed {@link Region}.
+         * @param name The name of the new {@link Node}.
+         * @param location The {@link Location} of the new {@link Node}.
+         * @return The current {@link BulkBuilder}.
+         */
+        BulkBuilder addNode(String name, Location location);
+
+        /**
+         * Adds a new {@link Neighborhood} to the constructed {@link Region}.
+         * @param name The name of the new {@link Neighborhood}.
+         * @param location The {@link Location} of the new {@link Neighborhood}.
+         * @return The current {@link BulkBuilder}.
+         */
+        BulkBuilder addNeighborhood(String name, Location location);
+
+        /**
+         * Adds a new {@link Restaurant} to the constructed {@link Region}.
+         * @param name The name of the new {@link Restaurant}.
+         * @param location The {@link Location} of the new {@link Restaurant}.
+         * @param availableFood The available food of the new {@link Restaurant}.
+         * @return The current {@link BulkBuilder}.
+         */
+        BulkBuilder addRestaurant(String name, Location location, List<String> availableFood);
+
+        /**
+         * Adds a new {@link Restaurant} to the constructed {@link Region}.
+         * @param location The {@link Location} of the new {@link Restaurant}.
+         * @param restaurantPreset The {@link Restaurant.Preset} used to create the new {@link Restaurant}.
+         * @return The current {@link BulkBuilder}.
+         */
+        BulkBuilder addRestaurant(Location location, Region.Restaurant.Preset restaurantPreset);
+
+        /**
+         * Adds a new {@link Edge} to the constructed {@link Region}. The connected {@link Node}s may be added later.
+         * @param name The name of the new {@link Edge}.
+         * @param locationA The start {@link Location} of the new {@link Edge}.
+         * @param locationB The end {@link Location} of the new {@link Edge}.
+         * @return The current {@link BulkBuilder}.
+         */
+        BulkBuilder addEdge(String name, Location locationA, Location locationB);
+
+        /**
+         * Constructs the new {@link Region}.
+         * @return The constructed {@link Region}.
+         * @throws IllegalArgumentException If an {@link Edge} was added twice or connects a missing {@link Node}.
+         */
+        Region build();
+    }
 }
@@ -99,8 +99,8 @@ class RegionBuilderImpl implements Region.Builder {
             return false;
         }
 
-        return edges.stream().noneMatch(edgeBuilder -> edgeBuilder.getLocationA().equals(locationA)
-            && edgeBuilder.getLocationB().equals(locationB));
+        // The edges are ordered by their locations only, so the lookup ignores the name
+        return !edges.contains(new EdgeBuilder(name, locationA, locationB));
     }
 
     @Override
@@ -113,8 +113,7 @@ class RegionBuilderImpl implements Region.Builder {
 
         for (NodeBuilder nodeBuilder : nodes.values()) {
             if (nodeBuilder.name.equals(name)) {
-                nodes.remove(nodes.keySet().stream().filter(key -> nodes.get(key).equals(nodeBuilder)).findFirst()
-                    .orElseThrow());
+                nodes.remove(nodeBuilder.location);
                 return this;
             }
         }
@@ -143,10 +142,14 @@ class RegionBuilderImpl implements Region.Builder {
                 throw new IllegalArgumentException("Can't create an edge if one of the connected nodes wasn't added to the region");
             }
 
-            nodes.get(e.locationA).connections.add(e.locationB);
-            nodes.get(e.locationB).connections.add(e.locationA);
-            region.putEdge(e.build(region, distanceCalc));
+            // Share the Location instances of the nodes instead of keeping the equal copies passed to addEdge
+            NodeBuilder nodeA = nodes.get(e.locationA);
+            NodeBuilder nodeB = nodes.get(e.locationB);
+            nodeA.connections.add(nodeB.location);
+            nodeB.connections.add(nodeA.location);
+            region.putEdge(e.build(region, distanceCalc, nodeA.location, nodeB.location));
         });
+        region.seal();
         return region;
     }
 
@@ -216,7 +219,15 @@ class RegionBuilderImpl implements Region.Builder {
             this.locationB = locationB;
         }
 
-        EdgeImpl build(Region region, DistanceCalculator distanceCalculator) {
+        /**
+         * Creates the {@link EdgeImpl} described by this builder.
+         * @param region The {@link Region} the edge belongs to.
+         * @param distanceCalculator The {@link DistanceCalculator} used to calculate the duration of the edge.
+         * @param locationA The instance used as start of the edge, equal to {@link #getLocationA()}.
+         * @param locationB The instance used as end of the edge, equal to {@link #getLocationB()}.
+         * @return The created {@link EdgeImpl}.
+         */
+        EdgeImpl build(Region region, DistanceCalculator distanceCalculator, Location locationA, Location locationB) {
             double distance = distanceCalculator.calculateDistance(locationA, locationB);
             long duration = (long) Math.ceil(distance);
             return new EdgeImpl(region, name, locationA, locationB, duration);
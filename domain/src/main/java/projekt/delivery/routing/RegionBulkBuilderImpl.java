@@ -0,0 +1,217 @@
+package projekt.delivery.routing;
+
+import projekt.base.DistanceCalculator;
+import projekt.base.Location;
+
+import java.util.*;
+
+/**
+ * A {@link Region.BulkBuilder} that stores the added components in parallel arrays instead of builder objects.<p>
+ *
+ * Names and node {@link Location}s are checked for duplicates with hash sets when they are added. The edges are sorted
+ * once by the {@link Location}s of their endpoints in {@link #build()}, using the rank of every node in the natural
+ * order of the {@link Location}s, which also moves duplicate edges next to each other.
+ */
+class RegionBulkBuilderImpl implements Region.BulkBuilder {
+
+    private static final byte NODE = 0;
+    private static final byte NEIGHBORHOOD = 1;
+    private static final byte RESTAURANT = 2;
+
+    private final Set<String> allNames;
+    private final Map<Location, Integer> nodeIds;
+    private String[] nodeNames;
+    private Location[] nodeLocations;
+    private byte[] nodeKinds;
+    private List<?>[] availableFoods;
+    private int nodeCount;
+    private String[] edgeNames;
+    private Location[] edgeLocationsA;
+    private Location[] edgeLocationsB;
+    private int edgeCount;
+    private DistanceCalculator distanceCalc;
+
+    /**
+     * Creates a new {@link RegionBulkBuilderImpl} with room for the given amounts of nodes and edges. Adding more
+     * components grows the arrays.
+     * @param nodeCapacity The expected amount of nodes.
+     * @param edgeCapacity The expected amount of edges.
+     */
+    RegionBulkBuilderImpl(int nodeCapacity, int edgeCapacity) {
+        if (nodeCapacity < 0 || edgeCapacity < 0) {
+            throw new IllegalArgumentException("Capacities must not be negative");
+        }
+        allNames = new HashSet<>((int) Math.min(Integer.MAX_VALUE, ((long) nodeCapacity + edgeCapacity) * 2));
+        nodeIds = new HashMap<>((int) Math.min(Integer.MAX_VALUE, nodeCapacity * 2L));
+        nodeNames = new String[nodeCapacity];
+        nodeLocations = new Location[nodeCapacity];
+        nodeKinds = new byte[nodeCapacity];
+        availableFoods = new List<?>[nodeCapacity];
+        edgeNames = new String[edgeCapacity];
+        edgeLocationsA = new Location[edgeCapacity];
+        edgeLocationsB = new Location[edgeCapacity];
+    }
+
+    private void addName(String name) {
+        if (!allNames.add(name)) {
+            throw new IllegalArgumentException(String.format("Duplicate name '%s'", name));
+        }
+    }
+
+    @Override
+    public Region.BulkBuilder distanceCalculator(DistanceCalculator distanceCalculator) {
+        this.distanceCalc = distanceCalculator;
+        return this;
+    }
+
+    @Override
+    public Region.BulkBuilder addNode(String name, Location location) {
+        return addNode(NODE, name, location, null);
+    }
+
+    @Override
+    public Region.BulkBuilder addNeighborhood(String name, Location location) {
+        return addNode(NEIGHBORHOOD, name, location, null);
+    }
+
+    @Override
+    public Region.BulkBuilder addRestaurant(String name, Location location, List<String> availableFood) {
+        return addNode(RESTAURANT, name, location, availableFood);
+    }
+
+    @Override
+    public Region.BulkBuilder addRestaurant(Location location, Region.Restaurant.Preset restaurantPreset) {
+        return addRestaurant(restaurantPreset.name(), location, restaurantPreset.availableFoods());
+    }
+
+    @Override
+    public Region.BulkBuilder addEdge(String name, Location locationA, Location locationB) {
+        addName(name);
+        if (edgeCount == edgeNames.length) {
+            int capacity = Math.max(16, edgeCount * 2);
+            edgeNames = Arrays.copyOf(edgeNames, capacity);
+            edgeLocationsA = Arrays.copyOf(edgeLocationsA, capacity);
+            edgeLocationsB = Arrays.copyOf(edgeLocationsB, capacity);
+        }
+        boolean sorted = locationA.compareTo(locationB) < 0;
+        edgeNames[edgeCount] = name;
+        edgeLocationsA[edgeCount] = sorted ? locationA : locationB;
+        edgeLocationsB[edgeCount] = sorted ? locationB : locationA;
+        edgeCount++;
+        return this;
+    }
+
+    @Override
+    public Region build() {
+        Objects.requireNonNull(distanceCalc, "distanceCalculator");
+
+        // Rank the nodes by their Locations, so the edges can be sorted by the ranks of their endpoints
+        Location[] sortedLocations = Arrays.copyOf(nodeLocations, nodeCount);
+        Arrays.sort(sortedLocations);
+        int[] rankToNode = new int[nodeCount];
+        int[] ranks = new int[nodeCount];
+        for (int rank = 0; rank < nodeCount; rank++) {
+            int node = nodeIds.get(sortedLocations[rank]);
+            rankToNode[rank] = node;
+            ranks[node] = rank;
+        }
+
+        // Distribute the edges into buckets by the rank of their first endpoint and sort each bucket by the rank of the
+        // second endpoint, every entry packs that rank and the index of the edge into a long
+        int[] offsets = new int[nodeCount + 1];
+        int[] firstRanks = new int[edgeCount];
+        int[] secondRanks = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            firstRanks[e] = ranks[requireNodeId(edgeLocationsA[e])];
+            secondRanks[e] = ranks[requireNodeId(edgeLocationsB[e])];
+            offsets[firstRanks[e] + 1]++;
+        }
+        for (int rank = 0; rank < nodeCount; rank++) {
+            offsets[rank + 1] += offsets[rank];
+        }
+        long[] sortedEdges = new long[edgeCount];
+        int[] next = Arrays.copyOf(offsets, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            sortedEdges[next[firstRanks[e]]++] = (long) secondRanks[e] << 32 | e;
+        }
+        int[] degrees = new int[nodeCount];
+        for (int rank = 0; rank < nodeCount; rank++) {
+            Arrays.sort(sortedEdges, offsets[rank], offsets[rank + 1]);
+            for (int i = offsets[rank]; i < offsets[rank + 1]; i++) {
+                if (i > offsets[rank] && sortedEdges[i] >>> 32 == sortedEdges[i - 1] >>> 32) {
+                    throw new IllegalArgumentException("Duplicate edge connecting %s to %s".formatted(
+                        sortedLocations[rank], sortedLocations[(int) (sortedEdges[i] >>> 32)]));
+                }
+                degrees[rankToNode[rank]]++;
+                degrees[rankToNode[(int) (sortedEdges[i] >>> 32)]]++;
+            }
+        }
+
+        // Share the Location instances of the nodes instead of keeping the equal copies passed to addEdge
+        List<Set<Location>> connections = new ArrayList<>(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            connections.add(new HashSet<>(Math.max(2, degrees[node] * 2)));
+        }
+        for (long entry : sortedEdges) {
+            int nodeA = rankToNode[firstRanks[(int) entry]];
+            int nodeB = rankToNode[(int) (entry >>> 32)];
+            connections.get(nodeA).add(nodeLocations[nodeB]);
+            connections.get(nodeB).add(nodeLocations[nodeA]);
+        }
+
+        RegionImpl region = new RegionImpl(distanceCalc);
+        for (int rank = 0; rank < nodeCount; rank++) {
+            region.putNode(buildNode(region, rankToNode[rank], connections.get(rankToNode[rank])));
+        }
+        for (long entry : sortedEdges) {
+            int e = (int) entry;
+            Location locationA = nodeLocations[rankToNode[firstRanks[e]]];
+            Location locationB = nodeLocations[rankToNode[(int) (entry >>> 32)]];
+            region.putEdge(new RegionBuilderImpl.EdgeBuilder(edgeNames[e], locationA, locationB)
+                .build(region, distanceCalc, locationA, locationB));
+        }
+        region.seal();
+        return region;
+    }
+
+    private Region.BulkBuilder addNode(byte kind, String name, Location location, List<String> availableFood) {
+        addName(name);
+        if (nodeIds.putIfAbsent(location, nodeCount) != null) {
+            allNames.remove(name);
+            throw new IllegalArgumentException("Duplicate node at location " + location);
+        }
+        if (nodeCount == nodeNames.length) {
+            int capacity = Math.max(16, nodeCount * 2);
+            nodeNames = Arrays.copyOf(nodeNames, capacity);
+            nodeLocations = Arrays.copyOf(nodeLocations, capacity);
+            nodeKinds = Arrays.copyOf(nodeKinds, capacity);
+            availableFoods = Arrays.copyOf(availableFoods, capacity);
+        }
+        nodeNames[nodeCount] = name;
+        nodeLocations[nodeCount] = location;
+        nodeKinds[nodeCount] = kind;
+        availableFoods[nodeCount] = availableFood;
+        nodeCount++;
+        return this;
+    }
+
+    private int requireNodeId(Location location) {
+        Integer node = nodeIds.get(location);
+        if (node == null) {
+            throw new IllegalArgumentException("Can't create an edge if one of the connected nodes wasn't added to the region");
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private NodeImpl buildNode(Region region, int node, Set<Location> connections) {
+        Set<Location> unmodifiableConnections = Collections.unmodifiableSet(connections);
+        return switch (nodeKinds[node]) {
+            case NEIGHBORHOOD ->
+                new NeighborhoodImpl(region, nodeNames[node], nodeLocations[node], unmodifiableConnections);
+            case RESTAURANT -> new RestaurantImpl(region, nodeNames[node], nodeLocations[node], unmodifiableConnections,
+                (List<String>) availableFoods[node]);
+            default -> new NodeImpl(region, nodeNames[node], nodeLocations[node], unmodifiableConnections);
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The differences between the edges of two {@link IndexedRegion}s with the same nodes, e.g. the snapshots of a
+ * {@link Region} and of a copy built from it with a street added or removed.<p>
+ *
+ * Node ids only depend on the {@link projekt.base.Location}s of the nodes, so equal node sets result in equal ids.
+ * Changes are split into those that can only make paths longer, i.e. removed edges and longer durations, and those
+ * that can only make paths shorter, i.e. added edges and shorter durations.
+ */
+final class RegionDiff {
+
+    private final IndexedRegion from;
+    private final IndexedRegion to;
+    private final List<Change> worse;
+    private final List<Change> better;
+
+    private RegionDiff(IndexedRegion from, IndexedRegion to, List<Change> worse, List<Change> better) {
+        this.from = from;
+        this.to = to;
+        this.worse = Collections.unmodifiableList(worse);
+        this.better = Collections.unmodifiableList(better);
+    }
+
+    /**
+     * Compares the edges of the given snapshots.
+     * @param from The older snapshot.
+     * @param to The newer snapshot.
+     * @return The differences between both snapshots or null if their nodes differ.
+     */
+    static @Nullable RegionDiff between(IndexedRegion from, IndexedRegion to) {
+        if (from.getNodeCount() != to.getNodeCount()) {
+            return null;
+        }
+        for (int node = 0; node < from.getNodeCount(); node++) {
+            if (!from.getNode(node).getLocation().equals(to.getNode(node).getLocation())) {
+                return null;
+            }
+        }
+
+        List<Change> worse = new ArrayList<>();
+        List<Change> better = new ArrayList<>();
+        for (int u = 0; u < from.getNodeCount(); u++) {
+            // Every edge is visited from its endpoint with the smaller id, loops never lie on a shortest path
+            for (int arc = from.getFirstArc(u), last = from.getFirstArc(u + 1); arc < last; arc++) {
+                int v = from.getArcTarget(arc);
+                long duration = durationBetween(to, u, v);
+                if (v > u && (duration < 0 || duration > from.getArcDuration(arc))) {
+                    worse.add(new Change(u, v, duration));
+                }
+            }
+            for (int arc = to.getFirstArc(u), last = to.getFirstArc(u + 1); arc < last; arc++) {
+                int v = to.getArcTarget(arc);
+                long duration = durationBetween(from, u, v);
+                if (v > u && (duration < 0 || duration > to.getArcDuration(arc))) {
+                    better.add(new Change(u, v, to.getArcDuration(arc)));
+                }
+            }
+        }
+        return new RegionDiff(from, to, worse, better);
+    }
+
+    /**
+     * Returns the older snapshot.
+     * @return The older snapshot.
+     */
+    IndexedRegion getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the newer snapshot.
+     * @return The newer snapshot.
+     */
+    IndexedRegion getTo() {
+        return to;
+    }
+
+    /**
+     * Returns the edges that were removed or became longer.
+     * @return The edges that were removed or became longer, with their new duration or -1 if they were removed.
+     */
+    List<Change> getWorse() {
+        return worse;
+    }
+
+    /**
+     * Returns the edges that were added or became shorter.
+     * @return The edges that were added or became shorter, with their new duration.
+     */
+    List<Change> getBetter() {
+        return better;
+    }
+
+    /**
+     * Returns the duration of the arc between the given nodes of the given snapshot.
+     * @return The duration of the arc or -1 if the nodes are not adjacent.
+     */
+    private static long durationBetween(IndexedRegion graph, int u, int v) {
+        int edge = graph.indexOfEdge(u, v);
+        return edge >= 0 ? graph.getEdgeDuration(edge) : -1;
+    }
+
+    /**
+     * A changed edge.
+     * @param nodeA The id of the endpoint with the smaller id.
+     * @param nodeB The id of the endpoint with the larger id.
+     * @param duration The duration of the edge in the newer snapshot or -1 if it was removed.
+     */
+    record Change(int nodeA, int nodeB, long duration) {}
+}
@@ -16,6 +16,10 @@ class RegionImpl implements Region {
     private final Map<Location, Map<Location, EdgeImpl>> edges = new HashMap<>();
     private final List<EdgeImpl> allEdges = new ArrayList<>();
     private final DistanceCalculator distanceCalculator;
+    private volatile @Nullable IndexedRegion indexedRegion;
+    private @Nullable LocationTable<NodeImpl> nodeTable;
+    private @Nullable LocationTable<EdgeImpl> edgeTable;
+    private @Nullable List<Edge> sealedEdgeList;
 
     /**
      * Creates a new, empty {@link RegionImpl} instance using a {@link EuclideanDistanceCalculator}.
@@ -33,6 +37,10 @@ class RegionImpl implements Region {
 
     @Override
     public @Nullable Node getNode(Location location) {
+        LocationTable<NodeImpl> table = nodeTable;
+        if (table != null && location != null) {
+            return table.get(location, location);
+        }
         return nodes.get(location);
     }
 
@@ -41,16 +49,15 @@ class RegionImpl implements Region {
         if(locationA == null || locationB == null){
             return null;
         }
-        else {
-            if(edges.containsKey(locationA) && edges.get(locationA).containsKey(locationB)){ //erst A, dann B
-                return edges.get(locationA).get(locationB);
-            }
-
-            if(edges.containsKey(locationB) && edges.get(locationB).containsKey(locationA)){ //erst B, dann A
-                return edges.get(locationB).get(locationA);
-            }
+        // The locations of an edge are stored in ascending order, so a single ordering has to be looked up
+        Location first = locationA.compareTo(locationB) <= 0 ? locationA : locationB;
+        Location second = first == locationA ? locationB : locationA;
+        LocationTable<EdgeImpl> table = edgeTable;
+        if (table != null) {
+            return table.get(first, second);
         }
-        return null; //alle anderen Fälle
+        Map<Location, EdgeImpl> adjacent = edges.get(first);
+        return adjacent != null ? adjacent.get(second) : null;
     }
 
     @Override
@@ -60,6 +67,10 @@ class RegionImpl implements Region {
 
     @Override
     public Collection<Edge> getEdges() {
+        List<Edge> sealed = sealedEdgeList;
+        if (sealed != null) {
+            return sealed;
+        }
         return edges.values().stream().flatMap(m -> m.values().stream()).collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableCollection));
     }
 
@@ -68,6 +79,80 @@ class RegionImpl implements Region {
         return distanceCalculator;
     }
 
+    @Override
+    public IndexedRegion getIndexedRegion() {
+        if (indexedRegion == null) {
+            indexedRegion = IndexedRegion.of(this);
+        }
+        return indexedRegion;
+    }
+
+    @Override
+    public synchronized void updateDuration(Edge edge, long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Duration must not be negative");
+        }
+        @Nullable Edge current = edge instanceof EdgeImpl edgeImpl
+            ? getEdge(edgeImpl.getLocationA(), edgeImpl.getLocationB()) : null;
+        if (!(current instanceof EdgeImpl currentImpl) || !current.getName().equals(edge.getName())) {
+            throw new IllegalArgumentException("Edge " + edge + " is not part of the region");
+        }
+        if (current.getDuration() == duration) {
+            return;
+        }
+
+        // Edges are immutable, so a new edge with the new duration replaces the current one everywhere
+        EdgeImpl replacement = new EdgeImpl(this, currentImpl.getName(), currentImpl.getLocationA(),
+            currentImpl.getLocationB(), duration);
+        edges.get(replacement.getLocationA()).put(replacement.getLocationB(), replacement);
+        allEdges.replaceAll(e -> e == currentImpl ? replacement : e);
+        nodes.get(replacement.getLocationA()).replaceEdge(replacement);
+        nodes.get(replacement.getLocationB()).replaceEdge(replacement);
+        if (edgeTable != null) {
+            edgeTable.put(replacement.getLocationA(), replacement.getLocationB(), replacement);
+        }
+        IndexedRegion graph = indexedRegion;
+        int id = graph != null ? graph.indexOfEdge(currentImpl) : -1;
+        if (sealedEdgeList != null) {
+            Edge[] sealedEdges = sealedEdgeList.toArray(new Edge[0]);
+            sealedEdges[id] = replacement;
+            sealedEdgeList = Collections.unmodifiableList(Arrays.asList(sealedEdges));
+        }
+        if (graph != null) {
+            indexedRegion = graph.withDuration(id, replacement);
+        }
+    }
+
+    /**
+     * Finishes the construction of this {@link RegionImpl} after all {@link NodeImpl}s and {@link EdgeImpl}s were added.
+     * Besides the adjacency of the nodes and the {@link IndexedRegion}, flat {@link LocationTable}s are built, which
+     * answer {@link #getNode(Location)} and {@link #getEdge(Location, Location)} with a single probe, and an immutable
+     * list of all edges ordered by their {@link Location}s, which is returned by {@link #getEdges()} and defines the
+     * edge ids of the {@link IndexedRegion}. Adding another component afterwards discards them again.
+     */
+    void seal() {
+        // Edges added by the builders are already ordered, so sorting them only takes linear time
+        EdgeImpl[] sortedEdges = allEdges.toArray(new EdgeImpl[0]);
+        Arrays.sort(sortedEdges, Comparator.comparing(EdgeImpl::getLocationA).thenComparing(EdgeImpl::getLocationB));
+        LocationTable<NodeImpl> sealedNodes = new LocationTable<>(nodes.size());
+        nodes.values().forEach(node -> sealedNodes.put(node.getLocation(), node.getLocation(), node));
+        LocationTable<EdgeImpl> sealedEdges = new LocationTable<>(sortedEdges.length);
+        for (EdgeImpl edge : sortedEdges) {
+            sealedEdges.put(edge.getLocationA(), edge.getLocationB(), edge);
+        }
+        nodeTable = sealedNodes;
+        edgeTable = sealedEdges;
+        sealedEdgeList = Collections.unmodifiableList(Arrays.<Edge>asList(sortedEdges));
+        // The hash codes are fixed first, so adding the adjacent nodes to sets does not hash their connections again
+        nodes.values().forEach(NodeImpl::initHashCode);
+        IndexedRegion graph = IndexedRegion.of(this);
+        // Neighboring nodes have close ids, so visiting the nodes in the order of their ids keeps the arcs in the cache
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            ((NodeImpl) graph.getNode(node)).initAdjacency(graph, node);
+        }
+        indexedRegion = graph;
+    }
+
     /**
      * Adds the given {@link NodeImpl} to this {@link RegionImpl}.
      * @param node the {@link NodeImpl} to add.
@@ -75,6 +160,10 @@ class RegionImpl implements Region {
     void putNode(NodeImpl node) {
         if (this.equals(node.getRegion())){
             nodes.put(node.getLocation(), node);
+            indexedRegion = null;
+            nodeTable = null;
+            edgeTable = null;
+            sealedEdgeList = null;
         }
         else{
             throw new IllegalArgumentException("Node " + node + " has incorrect region");
@@ -98,8 +187,12 @@ class RegionImpl implements Region {
                 throw new IllegalArgumentException("Node" + (edge.getNodeA() == null ? "A" : "B") + " " + location + " is not part of the region");
             }
 
-            edges.get(edge.getLocationA()).put(edge.getLocationB(), edge);
+            edges.computeIfAbsent(edge.getLocationA(), k -> new HashMap<>()).put(edge.getLocationB(), edge);
             allEdges.add(edge);
+            indexedRegion = null;
+            nodeTable = null;
+            edgeTable = null;
+            sealedEdgeList = null;
         }
         else{
             throw new IllegalArgumentException("Edge " + edge + " has incorrect region");
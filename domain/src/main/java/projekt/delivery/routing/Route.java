@@ -0,0 +1,158 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An immutable sequence of {@link Region.Node}s describing a path from a start {@link Region.Node} (excluded) to an
+ * end {@link Region.Node} (included).<p>
+ *
+ * In contrast to the {@link Deque}s returned by {@link PathCalculator#getPath(Region.Node, Region.Node)}, a
+ * {@link Route} cannot be consumed, so the same instance can be handed out to any amount of callers, each keeping its
+ * own position inside the {@link Route}. Sub routes share the node array of their parent.
+ */
+public final class Route implements Iterable<Region.Node> {
+
+    private static final Route EMPTY = new Route(new Region.Node[0], 0, 0);
+
+    private final Region.Node[] nodes;
+    private final int from;
+    private final int to;
+
+    private Route(Region.Node[] nodes, int from, int to) {
+        this.nodes = nodes;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates a new {@link Route} containing the given {@link Region.Node}s in iteration order.
+     * @param nodes The {@link Region.Node}s of the path, excluding the start and including the end.
+     * @return The created {@link Route}.
+     */
+    public static Route of(Collection<? extends Region.Node> nodes) {
+        return nodes.isEmpty() ? EMPTY : wrap(nodes.toArray(new Region.Node[0]));
+    }
+
+    /**
+     * Creates a new {@link Route} backed by the given array. The array must not be modified afterwards.
+     */
+    static Route wrap(Region.Node[] nodes) {
+        return new Route(nodes, 0, nodes.length);
+    }
+
+    /**
+     * Returns the amount of {@link Region.Node}s of this {@link Route}.
+     * @return The amount of {@link Region.Node}s of this {@link Route}.
+     */
+    public int size() {
+        return to - from;
+    }
+
+    /**
+     * Returns true if this {@link Route} does not contain any {@link Region.Node}, i.e. its start and end are equal.
+     * @return True if this {@link Route} is empty.
+     */
+    public boolean isEmpty() {
+        return from == to;
+    }
+
+    /**
+     * Returns the {@link Region.Node} at the given position of this {@link Route}.
+     * @param index The position of the {@link Region.Node}, in {@code [0, size())}.
+     * @return The {@link Region.Node} at the given position.
+     * @throws IndexOutOfBoundsException If the given position is out of bounds.
+     */
+    public Region.Node get(int index) {
+        Objects.checkIndex(index, size());
+        return nodes[from + index];
+    }
+
+    /**
+     * Returns the end of this {@link Route}.
+     * @return The last {@link Region.Node} of this {@link Route}.
+     * @throws NoSuchElementException If this {@link Route} is empty.
+     */
+    public Region.Node getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("The route is empty");
+        }
+        return nodes[to - 1];
+    }
+
+    /**
+     * Returns the part of this {@link Route} between the given positions. The returned {@link Route} shares the
+     * {@link Region.Node}s of this {@link Route}, so no copy is made.
+     * @param fromIndex The position of the first {@link Region.Node} (inclusive).
+     * @param toIndex The position of the last {@link Region.Node} (exclusive).
+     * @return The sub route.
+     * @throws IndexOutOfBoundsException If the given positions are out of bounds.
+     */
+    public Route subRoute(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size());
+        return new Route(nodes, from + fromIndex, from + toIndex);
+    }
+
+    /**
+     * Copies the {@link Region.Node}s of this {@link Route} into a new {@link Deque}.
+     * @return A new, modifiable {@link Deque} containing the {@link Region.Node}s of this {@link Route}.
+     */
+    public Deque<Region.Node> toDeque() {
+        Deque<Region.Node> deque = new ArrayDeque<>(Math.max(size(), 1));
+        for (int i = from; i < to; i++) {
+            deque.addLast(nodes[i]);
+        }
+        return deque;
+    }
+
+    @Override
+    public Iterator<Region.Node> iterator() {
+        return new Iterator<>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public Region.Node next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return nodes[next++];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Route route = (Route) o;
+        return Arrays.equals(nodes, from, to, route.nodes, route.from, route.to);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = from; i < to; i++) {
+            result = 31 * result + nodes[i].hashCode();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Route(nodes=" + Arrays.toString(Arrays.copyOfRange(nodes, from, to)) + ')';
+    }
+}
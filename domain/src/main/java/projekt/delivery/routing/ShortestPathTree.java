@@ -0,0 +1,525 @@
+package projekt.delivery.routing;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The shortest paths from every {@link Region.Node} of a {@link Region} to a common root node.<p>
+ *
+ * Instead of storing every path, a {@link ShortestPathTree} only stores the next node on the shortest path and the
+ * duration of the shortest path of every node in two primitive arrays indexed by the ids of the
+ * {@link IndexedRegion}. Paths are materialized lazily when they are requested, so a tree needs {@code O(n)} memory
+ * compared to {@code O(n²)} for a {@link Map} containing every path.<p>
+ *
+ * {@link ShortestPathTree}s are immutable and can be shared between threads. If the duration of an edge changes, a tree
+ * computed on an older snapshot of the {@link Region} can be repaired with {@link #update(IndexedRegion, int)}, which
+ * only recomputes the nodes whose shortest path is affected by the change. Trees of a copy of the {@link Region} with
+ * the same nodes can be moved to the copy with {@link #migrate(RegionDiff)}.
+ */
+public final class ShortestPathTree {
+
+    /**
+     * The distance of nodes that cannot reach the root.
+     */
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final IndexedRegion graph;
+    private final int root;
+    private final int[] nextHops;
+    private final long[] distances;
+    private final int reachableCount;
+
+    /**
+     * Creates a new {@link ShortestPathTree}.
+     * @param graph The graph the tree belongs to.
+     * @param root The id of the root node.
+     * @param nextHops The id of the next node on the shortest path to the root of every node or -1 for the root and
+     *                 unreachable nodes. The array is not copied.
+     * @param distances The duration of the shortest path to the root of every node or {@link #UNREACHABLE}. The array
+     *                  is not copied.
+     */
+    ShortestPathTree(IndexedRegion graph, int root, int[] nextHops, long[] distances) {
+        this(graph, root, nextHops, distances,
+            (int) Arrays.stream(distances).filter(distance -> distance != UNREACHABLE).count());
+    }
+
+    private ShortestPathTree(IndexedRegion graph, int root, int[] nextHops, long[] distances, int reachableCount) {
+        this.graph = graph;
+        this.root = root;
+        this.nextHops = nextHops;
+        this.distances = distances;
+        this.reachableCount = reachableCount;
+    }
+
+    /**
+     * Calculates the {@link ShortestPathTree} of the given root using Dijkstra's algorithm on the
+     * {@link IndexedRegion} of its {@link Region}.
+     * @param root The root of the tree.
+     * @return The calculated {@link ShortestPathTree}.
+     */
+    public static ShortestPathTree of(Region.Node root) {
+        IndexedRegion graph = root.getRegion().getIndexedRegion();
+        int rootId = graph.requireIndexOf(root);
+        DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, graph.getNodeCount());
+        workspace.run(graph, rootId, -1);
+
+        int[] nextHops = new int[graph.getNodeCount()];
+        long[] distances = new long[graph.getNodeCount()];
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            nextHops[node] = workspace.getPredecessor(node);
+            distances[node] = workspace.isReached(node) ? workspace.getDistance(node) : UNREACHABLE;
+        }
+        return new ShortestPathTree(graph, rootId, nextHops, distances);
+    }
+
+    /**
+     * Creates a {@link ShortestPathTree} from the paths calculated by {@link PathCalculator#getAllPathsTo(Region.Node)}.
+     * @param root The root of the tree.
+     * @param paths The paths from every reachable node to the root.
+     * @return The created {@link ShortestPathTree}.
+     */
+    public static ShortestPathTree of(Region.Node root, Map<Region.Node, Deque<Region.Node>> paths) {
+        IndexedRegion graph = root.getRegion().getIndexedRegion();
+        int rootId = graph.requireIndexOf(root);
+        int[] nextHops = new int[graph.getNodeCount()];
+        long[] distances = new long[graph.getNodeCount()];
+        Arrays.fill(nextHops, -1);
+        Arrays.fill(distances, UNREACHABLE);
+        distances[rootId] = 0;
+
+        for (Map.Entry<Region.Node, Deque<Region.Node>> entry : paths.entrySet()) {
+            int node = graph.requireIndexOf(entry.getKey());
+            if (node == rootId) {
+                continue;
+            }
+            long distance = 0;
+            Region.Node previous = entry.getKey();
+            for (Region.Node next : entry.getValue()) {
+                Region.Edge edge = previous.getEdge(next);
+                if (edge == null) {
+                    throw new IllegalArgumentException("The path of %s is not connected".formatted(entry.getKey()));
+                }
+                distance += edge.getDuration();
+                previous = next;
+            }
+            nextHops[node] = graph.requireIndexOf(entry.getValue().getFirst());
+            distances[node] = distance;
+        }
+        return new ShortestPathTree(graph, rootId, nextHops, distances);
+    }
+
+    /**
+     * Returns the root of this {@link ShortestPathTree}, i.e. the end of all its paths.
+     * @return The root of this {@link ShortestPathTree}.
+     */
+    public Region.Node getRoot() {
+        return graph.getNode(root);
+    }
+
+    /**
+     * Returns the {@link IndexedRegion} the ids of this {@link ShortestPathTree} refer to.
+     * @return The {@link IndexedRegion} of this {@link ShortestPathTree}.
+     */
+    public IndexedRegion getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the amount of nodes that are able to reach the root, including the root itself.
+     * @return The amount of nodes that are able to reach the root.
+     */
+    public int getReachableCount() {
+        return reachableCount;
+    }
+
+    /**
+     * Returns the estimated amount of bytes this {@link ShortestPathTree} occupies on the heap, excluding the shared
+     * {@link IndexedRegion}.
+     * @return The estimated size of this {@link ShortestPathTree} in bytes.
+     */
+    public long getEstimatedSize() {
+        // Object header and fields plus both arrays including their headers
+        return 40L + (16L + (long) Integer.BYTES * nextHops.length) + (16L + (long) Long.BYTES * distances.length);
+    }
+
+    /**
+     * Returns true if there is a path from the given {@link Region.Node} to the root.
+     * @param node The {@link Region.Node} to check.
+     * @return True if there is a path from the given {@link Region.Node} to the root.
+     */
+    public boolean isReachable(Region.Node node) {
+        int id = graph.indexOf(node);
+        return id >= 0 && distances[id] != UNREACHABLE;
+    }
+
+    /**
+     * Returns the duration of the shortest path from the given {@link Region.Node} to the root.
+     * @param node The start of the path.
+     * @return The duration of the shortest path or {@link #UNREACHABLE} if there is none.
+     */
+    public long getDistance(Region.Node node) {
+        int id = graph.indexOf(node);
+        return id >= 0 ? distances[id] : UNREACHABLE;
+    }
+
+    /**
+     * Returns the next {@link Region.Node} on the shortest path from the given {@link Region.Node} to the root.
+     * @param node The start of the path.
+     * @return The next {@link Region.Node} or {@code null} if the given {@link Region.Node} is the root or unreachable.
+     */
+    public @Nullable Region.Node getNextHop(Region.Node node) {
+        int id = graph.indexOf(node);
+        return id >= 0 && nextHops[id] >= 0 ? graph.getNode(nextHops[id]) : null;
+    }
+
+    /**
+     * Materializes the shortest path from the given {@link Region.Node} to the root.
+     * @param start The start of the path.
+     * @return A new {@link Deque} containing the {@link Region.Node}s of the path, excluding the start and including
+     * the root.
+     * @throws IllegalArgumentException If the given {@link Region.Node} is unable to reach the root.
+     */
+    public Deque<Region.Node> getPath(Region.Node start) {
+        int id = graph.requireIndexOf(start);
+        if (distances[id] == UNREACHABLE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, getRoot()));
+        }
+        return materialize(id);
+    }
+
+    /**
+     * Returns the shortest path from the given {@link Region.Node} to the root as an immutable {@link Route}.
+     * @param start The start of the path.
+     * @return The {@link Route} from the given {@link Region.Node} (excluded) to the root (included).
+     * @throws IllegalArgumentException If the given {@link Region.Node} is unable to reach the root.
+     */
+    public Route getRoute(Region.Node start) {
+        int id = graph.requireIndexOf(start);
+        if (distances[id] == UNREACHABLE) {
+            throw new IllegalArgumentException("No path from %s to %s".formatted(start, getRoot()));
+        }
+        int length = 0;
+        for (int current = nextHops[id]; current >= 0; current = nextHops[current]) {
+            length++;
+        }
+        Region.Node[] nodes = new Region.Node[length];
+        int index = 0;
+        for (int current = nextHops[id]; current >= 0; current = nextHops[current]) {
+            nodes[index++] = graph.getNode(current);
+        }
+        return Route.wrap(nodes);
+    }
+
+    /**
+     * Returns a read-only {@link Map} view of this {@link ShortestPathTree} that maps every node able to reach the
+     * root to its path as defined by {@link PathCalculator#getAllPathsTo(Region.Node)}. Paths are materialized on
+     * every access, so modifying a returned {@link Deque} does not affect the tree.
+     * @return A read-only {@link Map} view of this {@link ShortestPathTree}.
+     */
+    public Map<Region.Node, Deque<Region.Node>> asMap() {
+        return new PathMap();
+    }
+
+    /**
+     * Returns this {@link ShortestPathTree} on the given newer snapshot of its {@link IndexedRegion}. The changes
+     * between both snapshots are applied one by one, each only recomputing the nodes whose shortest path is affected
+     * by the changed edge.
+     * @param target The snapshot to update this {@link ShortestPathTree} to.
+     * @param maxChanges The maximum amount of changed edges to apply.
+     * @return The updated {@link ShortestPathTree} or null if the given snapshot is not a successor of the snapshot of
+     * this {@link ShortestPathTree} or more than {@code maxChanges} edges have changed.
+     */
+    @Nullable ShortestPathTree update(IndexedRegion target, int maxChanges) {
+        ShortestPathTree tree = this;
+        for (int changes = 0; tree.graph != target; changes++) {
+            @Nullable IndexedRegion next = tree.graph.getSuccessor();
+            if (next == null || changes == maxChanges) {
+                return null;
+            }
+            tree = tree.repair(next, tree.graph.getChangedEdge());
+        }
+        return tree;
+    }
+
+    /**
+     * Repairs this {@link ShortestPathTree} after the duration of the given edge changed in the given successor of its
+     * snapshot.<p>
+     *
+     * A shorter edge can only improve the nodes that reach the root over it, so a Dijkstra search is started at the
+     * endpoint that improves. A longer edge only affects the subtree hanging from it if it is part of this tree. The
+     * nodes of that subtree are reset and a Dijkstra search seeded with their best unaffected neighbors recomputes
+     * their paths. In every other case the arrays of this tree are shared with the returned tree.
+     */
+    private ShortestPathTree repair(IndexedRegion next, int edge) {
+        int nodeA = next.getEdgeNodeA(edge);
+        int nodeB = next.getEdgeNodeB(edge);
+        long oldDuration = graph.getEdgeDuration(edge);
+        long newDuration = next.getEdgeDuration(edge);
+        if (nodeA == nodeB || oldDuration == newDuration) {
+            return new ShortestPathTree(next, root, nextHops, distances, reachableCount);
+        }
+
+        DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, next.getNodeCount());
+        IndexedMinHeap queue = workspace.queue;
+        int[] newNextHops;
+        long[] newDistances;
+
+        if (newDuration < oldDuration) {
+            int improved;
+            int via;
+            if (distances[nodeB] != UNREACHABLE && distances[nodeB] + newDuration < distances[nodeA]) {
+                improved = nodeA;
+                via = nodeB;
+            } else if (distances[nodeA] != UNREACHABLE && distances[nodeA] + newDuration < distances[nodeB]) {
+                improved = nodeB;
+                via = nodeA;
+            } else {
+                return new ShortestPathTree(next, root, nextHops, distances, reachableCount);
+            }
+            newNextHops = nextHops.clone();
+            newDistances = distances.clone();
+            newNextHops[improved] = via;
+            newDistances[improved] = distances[via] + newDuration;
+            queue.push(improved, newDistances[improved]);
+        } else {
+            int child = nextHops[nodeA] == nodeB ? nodeA : nextHops[nodeB] == nodeA ? nodeB : -1;
+            if (child < 0) {
+                return new ShortestPathTree(next, root, nextHops, distances, reachableCount);
+            }
+            newNextHops = nextHops.clone();
+            newDistances = distances.clone();
+
+            // Collect the subtree of the child, i.e. all nodes whose path to the root contains the changed edge
+            BitSet affected = new BitSet(next.getNodeCount());
+            int[] subtree = new int[16];
+            int size = 0;
+            affected.set(child);
+            subtree[size++] = child;
+            for (int i = 0; i < size; i++) {
+                int u = subtree[i];
+                for (int arc = next.getFirstArc(u), last = next.getFirstArc(u + 1); arc < last; arc++) {
+                    int v = next.getArcTarget(arc);
+                    if (nextHops[v] == u && !affected.get(v)) {
+                        affected.set(v);
+                        if (size == subtree.length) {
+                            subtree = Arrays.copyOf(subtree, size * 2);
+                        }
+                        subtree[size++] = v;
+                    }
+                }
+            }
+
+            for (int i = 0; i < size; i++) {
+                newNextHops[subtree[i]] = -1;
+                newDistances[subtree[i]] = UNREACHABLE;
+            }
+            for (int i = 0; i < size; i++) {
+                int u = subtree[i];
+                for (int arc = next.getFirstArc(u), last = next.getFirstArc(u + 1); arc < last; arc++) {
+                    int v = next.getArcTarget(arc);
+                    if (!affected.get(v) && newDistances[v] != UNREACHABLE
+                        && newDistances[v] + next.getArcDuration(arc) < newDistances[u]) {
+                        newDistances[u] = newDistances[v] + next.getArcDuration(arc);
+                        newNextHops[u] = v;
+                    }
+                }
+                if (newDistances[u] != UNREACHABLE) {
+                    queue.push(u, newDistances[u]);
+                }
+            }
+        }
+
+        propagate(next, queue, newNextHops, newDistances);
+        return new ShortestPathTree(next, root, newNextHops, newDistances);
+    }
+
+    /**
+     * Moves this {@link ShortestPathTree} to the newer snapshot of the given {@link RegionDiff}, e.g. after a street
+     * was added to or removed from a copy of the {@link Region}.<p>
+     *
+     * Removed and longer edges only affect this tree if they are part of it, which is checked with the next hops of
+     * their endpoints. The subtrees hanging from these edges are reset and seeded with their best unaffected
+     * neighbors, added and shorter edges seed the endpoints they improve. A single Dijkstra search then recomputes
+     * the affected nodes. If no change affects this tree, its arrays are shared with the returned tree.
+     * @param diff The changes between the snapshot of this tree and the target snapshot.
+     * @return The {@link ShortestPathTree} on the newer snapshot of the given {@link RegionDiff}.
+     */
+    ShortestPathTree migrate(RegionDiff diff) {
+        IndexedRegion next = diff.getTo();
+        DijkstraWorkspace workspace = DijkstraWorkspace.acquire(0, next.getNodeCount());
+        IndexedMinHeap queue = workspace.queue;
+        int[] newNextHops = nextHops;
+        long[] newDistances = distances;
+
+        // Collect the subtrees of all tree edges that were removed or became longer
+        BitSet affected = new BitSet(next.getNodeCount());
+        int[] subtree = new int[16];
+        int size = 0;
+        for (RegionDiff.Change change : diff.getWorse()) {
+            int nodeA = change.nodeA();
+            int nodeB = change.nodeB();
+            int child = nextHops[nodeA] == nodeB ? nodeA : nextHops[nodeB] == nodeA ? nodeB : -1;
+            if (child >= 0 && !affected.get(child)) {
+                affected.set(child);
+                if (size == subtree.length) {
+                    subtree = Arrays.copyOf(subtree, size * 2);
+                }
+                subtree[size++] = child;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int u = subtree[i];
+            for (int arc = graph.getFirstArc(u), last = graph.getFirstArc(u + 1); arc < last; arc++) {
+                int v = graph.getArcTarget(arc);
+                if (nextHops[v] == u && !affected.get(v)) {
+                    affected.set(v);
+                    if (size == subtree.length) {
+                        subtree = Arrays.copyOf(subtree, size * 2);
+                    }
+                    subtree[size++] = v;
+                }
+            }
+        }
+
+        if (size > 0) {
+            newNextHops = nextHops.clone();
+            newDistances = distances.clone();
+            for (int i = 0; i < size; i++) {
+                newNextHops[subtree[i]] = -1;
+                newDistances[subtree[i]] = UNREACHABLE;
+            }
+            for (int i = 0; i < size; i++) {
+                int u = subtree[i];
+                for (int arc = next.getFirstArc(u), last = next.getFirstArc(u + 1); arc < last; arc++) {
+                    int v = next.getArcTarget(arc);
+                    if (!affected.get(v) && newDistances[v] != UNREACHABLE
+                        && newDistances[v] + next.getArcDuration(arc) < newDistances[u]) {
+                        newDistances[u] = newDistances[v] + next.getArcDuration(arc);
+                        newNextHops[u] = v;
+                    }
+                }
+                if (newDistances[u] != UNREACHABLE) {
+                    queue.push(u, newDistances[u]);
+                }
+            }
+        }
+
+        for (RegionDiff.Change change : diff.getBetter()) {
+            for (int side = 0; side < 2; side++) {
+                int via = side == 0 ? change.nodeA() : change.nodeB();
+                int improved = side == 0 ? change.nodeB() : change.nodeA();
+                long candidate = newDistances[via] == UNREACHABLE ? UNREACHABLE : newDistances[via] + change.duration();
+                if (candidate >= newDistances[improved]) {
+                    continue;
+                }
+                if (newDistances == distances) {
+                    newNextHops = nextHops.clone();
+                    newDistances = distances.clone();
+                }
+                newNextHops[improved] = via;
+                newDistances[improved] = candidate;
+                queue.push(improved, candidate);
+            }
+        }
+
+        if (newDistances == distances) {
+            return new ShortestPathTree(next, root, nextHops, distances, reachableCount);
+        }
+        propagate(next, queue, newNextHops, newDistances);
+        return new ShortestPathTree(next, root, newNextHops, newDistances);
+    }
+
+    /**
+     * Propagates the changed distances of the nodes in the given queue. Nodes that are not reached keep their
+     * distances since they are already shortest.
+     */
+    private static void propagate(IndexedRegion graph, IndexedMinHeap queue, int[] nextHops, long[] distances) {
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int arc = graph.getFirstArc(u), last = graph.getFirstArc(u + 1); arc < last; arc++) {
+                int v = graph.getArcTarget(arc);
+                long candidate = distances[u] + graph.getArcDuration(arc);
+                if (candidate < distances[v]) {
+                    distances[v] = candidate;
+                    nextHops[v] = u;
+                    queue.push(v, candidate);
+                }
+            }
+        }
+    }
+
+    private Deque<Region.Node> materialize(int node) {
+        Deque<Region.Node> path = new ArrayDeque<>();
+        for (int current = nextHops[node]; current >= 0; current = nextHops[current]) {
+            path.addLast(graph.getNode(current));
+        }
+        return path;
+    }
+
+    private final class PathMap extends AbstractMap<Region.Node, Deque<Region.Node>> {
+
+        @Override
+        public int size() {
+            return reachableCount;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Region.Node node && isReachable(node);
+        }
+
+        @Override
+        public Deque<Region.Node> get(Object key) {
+            return containsKey(key) ? materialize(graph.indexOf((Region.Node) key)) : null;
+        }
+
+        @Override
+        public Set<Entry<Region.Node, Deque<Region.Node>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return reachableCount;
+                }
+
+                @Override
+                public Iterator<Entry<Region.Node, Deque<Region.Node>>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int node) {
+                            while (node < distances.length && distances[node] == UNREACHABLE) {
+                                node++;
+                            }
+                            return node;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < distances.length;
+                        }
+
+                        @Override
+                        public Entry<Region.Node, Deque<Region.Node>> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int node = next;
+                            next = advance(node + 1);
+                            return new SimpleImmutableEntry<>(graph.getNode(node), materialize(node));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
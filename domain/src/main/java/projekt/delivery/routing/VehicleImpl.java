@@ -69,7 +69,7 @@ class VehicleImpl implements Vehicle {
             throw new IllegalArgumentException();
         }
         else if(getOccupied().getComponent() instanceof Region.Edge){
-            tmp.nodes.removeLast();
+            tmp.removeLast();
             moveQueue.add(tmp);
             moveQueued(node, arrivalAction);
         }
@@ -93,7 +93,7 @@ class VehicleImpl implements Vehicle {
             path = pathCalculator.getPath(current, node);
         }
         else{
-            Region.Node lastNode = moveQueue.peekLast().nodes().getLast();
+            Region.Node lastNode = moveQueue.peekLast().getLast();
             path = pathCalculator.getPath(lastNode, node);
         }
 
@@ -139,13 +139,43 @@ class VehicleImpl implements Vehicle {
         }
     }
 
+    /**
+     * Replaces the queued paths that are no longer shortest paths after the duration of the given {@link Region.Edge}
+     * changed. The next {@link Region.Node} of a {@link Vehicle} that is on an edge cannot be changed.
+     * @param edge The changed {@link Region.Edge}.
+     * @param previousDuration The duration of the {@link Region.Edge} before the change.
+     */
+    void rerouteIfSuboptimal(Region.Edge edge, long previousDuration) {
+        if (edge.getDuration() == previousDuration) {
+            return;
+        }
+        boolean longer = edge.getDuration() > previousDuration;
+        PathCalculator pathCalculator = vehicleManager.getPathCalculator();
+        @Nullable Region.Node origin = occupied.component instanceof Region.Node node ? node : null;
+
+        for (PathImpl path : moveQueue) {
+            if (path.isFinished()) {
+                continue;
+            }
+            boolean keepNext = origin == null;
+            if (keepNext) {
+                origin = path.peekNext();
+            }
+            Region.Node last = path.getLast();
+            if (!origin.equals(last) && path.isSuboptimal(origin, keepNext, edge, longer, pathCalculator)) {
+                path.reroute(pathCalculator.getPath(origin, last), keepNext);
+            }
+            origin = last;
+        }
+    }
+
     void move(long currentTick) {
         final Region region = vehicleManager.getRegion();
         if (moveQueue.isEmpty()) {
             return;
         }
         final PathImpl path = moveQueue.peek();
-        if (path.nodes().isEmpty()) {
+        if (path.isFinished()) {
             moveQueue.pop();
             final @Nullable BiConsumer<? super Vehicle, Long> action = path.arrivalAction();
             if (action == null) {
@@ -154,12 +184,12 @@ class VehicleImpl implements Vehicle {
                 action.accept(this, currentTick);
             }
         } else {
-            Region.Node next = path.nodes().peek();
+            Region.Node next = path.peekNext();
             if (occupied instanceof OccupiedNodeImpl) {
                 vehicleManager.getOccupied(region.getEdge(((OccupiedNodeImpl<?>) occupied).getComponent(), next)).addVehicle(this, currentTick);
             } else if (occupied instanceof OccupiedEdgeImpl) {
                 vehicleManager.getOccupied(next).addVehicle(this, currentTick);
-                path.nodes().pop();
+                path.advance();
             } else {
                 throw new AssertionError("Component must be either node or component");
             }
@@ -200,7 +230,121 @@ class VehicleImpl implements Vehicle {
             + ')';
     }
 
-    private record PathImpl(Deque<Region.Node> nodes, BiConsumer<? super Vehicle, Long> arrivalAction) implements Path {
+    /**
+     * A {@link Path} backed by the {@link Deque} returned by {@link PathCalculator#getPath(Region.Node, Region.Node)},
+     * which is the only copy of the remaining {@link Region.Node}s. Reached nodes are polled from its front, so
+     * {@link #nodes()} always returns the nodes that have not been reached yet.
+     */
+    private static final class PathImpl implements Path {
+
+        private Deque<Region.Node> nodes;
+        private final BiConsumer<? super Vehicle, Long> arrivalAction;
+
+        /**
+         * Creates a new {@link PathImpl} following the given {@link Region.Node}s, which are returned by
+         * {@link #nodes()}.
+         */
+        private PathImpl(Deque<Region.Node> nodes, BiConsumer<? super Vehicle, Long> arrivalAction) {
+            this.nodes = nodes;
+            this.arrivalAction = arrivalAction;
+        }
+
+        /**
+         * Returns true if the vehicle has reached the last {@link Region.Node} of this {@link PathImpl}.
+         */
+        boolean isFinished() {
+            return nodes.isEmpty();
+        }
+
+        /**
+         * Returns the next {@link Region.Node} the vehicle moves to.
+         */
+        Region.Node peekNext() {
+            return nodes.getFirst();
+        }
+
+        /**
+         * Marks the next {@link Region.Node} as reached.
+         */
+        void advance() {
+            nodes.removeFirst();
+        }
+
+        /**
+         * Returns the last {@link Region.Node} of this {@link PathImpl}.
+         * @throws NoSuchElementException If this {@link PathImpl} is empty.
+         */
+        Region.Node getLast() {
+            return nodes.getLast();
+        }
+
+        /**
+         * Removes the last {@link Region.Node} from this {@link PathImpl}.
+         * @throws NoSuchElementException If this {@link PathImpl} is empty.
+         */
+        void removeLast() {
+            nodes.removeLast();
+        }
+
+        /**
+         * Returns true if the remaining {@link Region.Node}s of this {@link PathImpl} are no longer a shortest path
+         * from the given origin after the duration of the given {@link Region.Edge} changed. Assuming that they were a
+         * shortest path before, only paths containing a longer edge or not containing a shorter edge are checked.
+         */
+        boolean isSuboptimal(
+            Region.Node origin,
+            boolean skipNext,
+            Region.Edge edge,
+            boolean longer,
+            PathCalculator pathCalculator
+        ) {
+            boolean containsEdge = false;
+            long duration = 0;
+            Region.Node previous = origin;
+            Iterator<Region.Node> iterator = nodes.iterator();
+            if (skipNext) {
+                iterator.next();
+            }
+            while (iterator.hasNext()) {
+                Region.Node next = iterator.next();
+                Region.Edge current = previous.getEdge(next);
+                if (current == null) {
+                    return true;
+                }
+                containsEdge |= current.equals(edge);
+                duration += current.getDuration();
+                previous = next;
+            }
+            if (containsEdge != longer) {
+                return false;
+            }
+            return duration > pathCalculator.getDistance(origin, previous);
+        }
 
+        /**
+         * Replaces the remaining {@link Region.Node}s of this {@link PathImpl} with the given ones.
+         * @param remaining The new path to the last {@link Region.Node} of this {@link PathImpl}, which is taken over
+         *                  by this {@link PathImpl}.
+         * @param keepNext Whether the next {@link Region.Node} is kept in front of the given path.
+         */
+        void reroute(Deque<Region.Node> remaining, boolean keepNext) {
+            if (keepNext) {
+                remaining.addFirst(nodes.getFirst());
+            }
+            nodes = remaining;
+        }
+
+        /**
+         * Returns the {@link Region.Node}s that have not been reached yet.
+         */
+        @Override
+        public Deque<Region.Node> nodes() {
+            return nodes;
+        }
+
+        @Override
+        public BiConsumer<? super Vehicle, Long> arrivalAction() {
+            return arrivalAction;
+        }
     }
 }
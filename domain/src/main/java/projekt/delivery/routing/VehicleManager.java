@@ -32,6 +32,15 @@ public interface VehicleManager {
      */
     PathCalculator getPathCalculator();
 
+    /**
+     * Returns the {@link DistanceMatrix} containing the durations of the shortest paths from every restaurant to every
+     * restaurant and neighborhood, calculated with {@link #getPathCalculator()}. The {@link DistanceMatrix} is
+     * computed on the first call and computed again once the {@link IndexedRegion} snapshot of the {@link Region} has
+     * been replaced.
+     * @return The {@link DistanceMatrix} of this {@link VehicleManager}.
+     */
+    DistanceMatrix getDistanceMatrix();
+
     /**
      * Returns all spawned {@link Vehicle}s
      * @return All spawned {@link Vehicle}s
@@ -102,6 +111,19 @@ public interface VehicleManager {
      */
     List<Event> tick(long currentTick);
 
+    /**
+     * Changes the duration of the given {@link Region.Edge} using {@link Region#updateDuration(Region.Edge, long)}
+     * and reroutes the queued paths of all {@link Vehicle}s that are no longer shortest paths.<p>
+     *
+     * A longer {@link Region.Edge} only affects paths that contain it and a shorter one only paths that do not,
+     * so the paths of most {@link Vehicle}s are left untouched without asking the {@link PathCalculator}. Rerouted
+     * paths keep their destination and arrival action.
+     *
+     * @param edge The {@link Region.Edge} to change.
+     * @param duration The new duration of the {@link Region.Edge}.
+     */
+    void updateDuration(Region.Edge edge, long duration);
+
     /**
      * Resets this {@link VehicleManager} to its start state.
      */
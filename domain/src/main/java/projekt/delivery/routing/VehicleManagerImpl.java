@@ -1,5 +1,6 @@
 package projekt.delivery.routing;
 
+import org.jetbrains.annotations.Nullable;
 import projekt.base.Location;
 import projekt.delivery.event.Event;
 import projekt.delivery.event.EventBus;
@@ -19,6 +20,7 @@ class VehicleManagerImpl implements VehicleManager {
     private final List<VehicleImpl> vehicles = new ArrayList<>();
     private final Collection<Vehicle> unmodifiableVehicles = Collections.unmodifiableCollection(vehicles);
     private final EventBus eventBus = new EventBus();
+    private @Nullable DistanceMatrix distanceMatrix;
 
     VehicleManagerImpl(
         Region region,
@@ -89,6 +91,16 @@ class VehicleManagerImpl implements VehicleManager {
         return pathCalculator;
     }
 
+    @Override
+    public synchronized DistanceMatrix getDistanceMatrix() {
+        // Computed on first use and again once the snapshot of the region was replaced
+        IndexedRegion graph = region.getIndexedRegion();
+        if (distanceMatrix == null || distanceMatrix.getGraph() != graph) {
+            distanceMatrix = DistanceMatrix.compute(region, pathCalculator);
+        }
+        return distanceMatrix;
+    }
+
     @Override
     public Collection<Vehicle> getVehicles() {
         return unmodifiableVehicles;
@@ -213,6 +225,31 @@ class VehicleManagerImpl implements VehicleManager {
         return eventBus.popEvents(currentTick);
     }
 
+    @Override
+    public void updateDuration(Region.Edge edge, long duration) {
+        Location locationA = edge.getNodeA().getLocation();
+        Location locationB = edge.getNodeB().getLocation();
+        Region.Edge previous = Objects.requireNonNullElse(region.getEdge(locationA, locationB), edge);
+        region.updateDuration(edge, duration);
+        Region.Edge replacement = Objects.requireNonNull(region.getEdge(locationA, locationB));
+        if (replacement == previous) {
+            return;
+        }
+
+        // The region swapped in a new edge, the vehicles on the old one keep their occupied edge
+        OccupiedEdgeImpl occupiedEdge = occupiedEdges.remove(previous);
+        if (occupiedEdge != null) {
+            occupiedEdge.replaceComponent(replacement);
+            occupiedEdges.put(replacement, occupiedEdge);
+        }
+        for (VehicleImpl vehicle : vehicles) {
+            vehicle.rerouteIfSuboptimal(replacement, previous.getDuration());
+        }
+        for (VehicleImpl vehicle : vehiclesToSpawn) {
+            vehicle.rerouteIfSuboptimal(replacement, previous.getDuration());
+        }
+    }
+
     public void reset() {
         for (AbstractOccupied<?> occupied : getAllOccupied()) {
             occupied.reset();
@@ -44,6 +44,12 @@ public abstract class AbstractDeliveryService implements DeliveryService {
             .map(order -> OrderReceivedEvent.of(currentTick, order))
             .forEach(vehicleManager.getEventBus()::queuePost);
 
+        // Orders without a path from their restaurant to their location can never be delivered, so they are received
+        // but not scheduled instead of failing the path calculations of the implementations
+        if (!newOrders.stream().allMatch(ConfirmedOrder::isReachable)) {
+            newOrders = newOrders.stream().filter(ConfirmedOrder::isReachable).toList();
+        }
+
         return tick(currentTick, newOrders);
     }
 
@@ -61,7 +67,8 @@ public abstract class AbstractDeliveryService implements DeliveryService {
     /**
      * Executes the current tick.
      * @param currentTick The tick to execute.
-     * @param newOrders All new {@link ConfirmedOrder}s that have been ordered during the last tick.
+     * @param newOrders All new {@link ConfirmedOrder}s that have been ordered during the last tick and can be delivered,
+     *                  see {@link ConfirmedOrder#isReachable()}.
      * @return A {@link List} containing all {@link Event}s that occurred during the tick.
      */
    protected abstract List<Event> tick(long currentTick, List<ConfirmedOrder> newOrders);
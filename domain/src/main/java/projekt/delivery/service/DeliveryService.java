@@ -17,7 +17,8 @@ public interface DeliveryService {
     OurDeliveryService.Factory OUR = OurDeliveryService::new;
 
     /**
-     * Adds a {@link List} of {@link ConfirmedOrder}s to the pending orders of this {@link DeliveryService}.
+     * Adds a {@link List} of {@link ConfirmedOrder}s to the pending orders of this {@link DeliveryService}. Orders
+     * that are not {@link ConfirmedOrder#isReachable() reachable} are received but never scheduled.
      *
      * @param confirmedOrders The {@link ConfirmedOrder}s to add.
      */
@@ -4,6 +4,10 @@ import projekt.delivery.event.Event;
 import projekt.delivery.generator.OrderGenerator;
 import projekt.delivery.rating.Rater;
 import projekt.delivery.rating.RatingCriteria;
+import projekt.delivery.routing.CachedPathCalculator;
+import projekt.delivery.routing.PathCalculator;
+import projekt.delivery.routing.Region;
+import projekt.delivery.routing.VehicleManager;
 import projekt.delivery.service.DeliveryService;
 
 import java.util.*;
@@ -158,6 +162,36 @@ public class BasicDeliverySimulation implements Simulation {
         getDeliveryService().reset();
         setupRaters();
         setupOrderGenerator();
+        if (simulationConfig.isWarmUp()) {
+            warmUpPathCalculator();
+        }
+    }
+
+    /**
+     * Prepares the {@link PathCalculator} of the {@link VehicleManager} before the first tick and prints the duration to
+     * the console. A {@link CachedPathCalculator} calculates the shortest paths to every {@link Region.Restaurant} and
+     * {@link Region.Neighborhood} in parallel on the common {@link java.util.concurrent.ForkJoinPool}, so it does not
+     * have to calculate them during the first ticks. Other {@link PathCalculator}s keep no results, so they only run
+     * their {@link PathCalculator#preprocess(Region) preprocessing}.
+     */
+    private void warmUpPathCalculator() {
+        VehicleManager vehicleManager = getDeliveryService().getVehicleManager();
+        PathCalculator pathCalculator = vehicleManager.getPathCalculator();
+        Region region = vehicleManager.getRegion();
+
+        long start = System.currentTimeMillis();
+        if (pathCalculator instanceof CachedPathCalculator) {
+            List<Region.Node> nodes = region.getNodes().stream()
+                .filter(node -> node instanceof Region.Restaurant || node instanceof Region.Neighborhood)
+                .toList();
+            // Parallel streams run on the common ForkJoinPool
+            nodes.parallelStream().forEach(pathCalculator::getShortestPathTree);
+            System.out.printf("Warmed up the shortest paths to %d nodes in %d ms%n", nodes.size(),
+                System.currentTimeMillis() - start);
+        } else {
+            pathCalculator.preprocess(region);
+            System.out.printf("Preprocessed the region in %d ms%n", System.currentTimeMillis() - start);
+        }
     }
 
     private void setupRaters() {
@@ -5,11 +5,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * A config for a {@link Simulation}.<p>
  *
- * It contains the length of a tick and whether the {@link Simulation} is paused.
+ * It contains the length of a tick, whether the {@link Simulation} is paused and whether the
+ * {@link projekt.delivery.routing.PathCalculator} is warmed up before the first tick.
  */
 public class SimulationConfig {
     private final AtomicInteger millisecondsPerTick;
     private volatile boolean paused = false;
+    private volatile boolean warmUp = false;
 
     /**
      * Creates a new {@link Simulation} instance.<p>
@@ -53,4 +55,22 @@ public class SimulationConfig {
     public void setPaused(boolean paused) {
         this.paused = paused;
     }
+
+    /**
+     * Returns True if the shortest paths to all restaurants and neighborhoods are cached, or the path calculator is
+     * preprocessed if it does not cache, before the first tick.
+     * @return True if the simulation is warmed up before the first tick.
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Changes whether the shortest paths to all restaurants and neighborhoods are cached, or the path calculator is
+     * preprocessed if it does not cache, before the first tick.
+     * @param warmUp The new warm up status.
+     */
+    public void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
 }
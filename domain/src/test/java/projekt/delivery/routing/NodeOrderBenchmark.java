@@ -0,0 +1,92 @@
+package projekt.delivery.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A simple benchmark comparing the traversal speed of {@link IndexedRegion}s whose node ids are assigned in different
+ * orders on a synthetic grid shaped {@link Region}. Each order is measured with complete Dijkstra searches and with
+ * sweeps over all arcs in the order of the node ids.<p>
+ *
+ * Run it with {@code main} and optionally pass the width of the grid and the amount of searches as arguments. The
+ * default grid has 100 000 nodes.
+ */
+public class NodeOrderBenchmark {
+
+    /**
+     * Consumes the results of the sweeps, so the JIT is unable to remove them.
+     */
+    private static long sink;
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 317;
+        int searches = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        Region region = PathCalculatorBenchmark.createGrid(width, width, new Random(42));
+        System.out.printf("Region with %d nodes and %d edges%n", region.getNodes().size(), region.getEdges().size());
+
+        List<Region.Node> shuffled = new ArrayList<>(region.getNodes());
+        Collections.shuffle(shuffled, new Random(7));
+        Map<Region.Node, Integer> ranks = new HashMap<>();
+        for (Region.Node node : shuffled) {
+            ranks.put(node, ranks.size());
+        }
+
+        benchmark("Random order", IndexedRegion.of(region, Comparator.comparing(ranks::get)), searches);
+        benchmark("Location order", IndexedRegion.of(region, Comparator.comparing(Region.Node::getLocation)), searches);
+        benchmark("Hilbert order", IndexedRegion.of(region), searches);
+    }
+
+    private static void benchmark(String name, IndexedRegion graph, int searches) {
+        // Use the same roots for every order, so the searches are comparable
+        Random random = new Random(13);
+        Region.Node[] roots = new Region.Node[searches];
+        List<Region.Node> nodes = new ArrayList<>(graph.getRegion().getNodes());
+        nodes.sort(Comparator.comparing(Region.Node::getLocation));
+        for (int i = 0; i < searches; i++) {
+            roots[i] = nodes.get(random.nextInt(nodes.size()));
+        }
+
+        // Warm up the JIT before measuring
+        for (int i = 0; i < Math.min(searches, 5); i++) {
+            DijkstraWorkspace.acquire(0, graph.getNodeCount()).run(graph, graph.indexOf(roots[i]), -1);
+            sink += sweep(graph);
+        }
+
+        long start = System.nanoTime();
+        for (Region.Node root : roots) {
+            DijkstraWorkspace.acquire(0, graph.getNodeCount()).run(graph, graph.indexOf(root), -1);
+        }
+        double dijkstra = (System.nanoTime() - start) / 1_000_000.0 / searches;
+
+        start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            sink += sweep(graph);
+        }
+        double sweep = (System.nanoTime() - start) / 1_000_000.0 / searches;
+
+        System.out.printf("%-16s %8.2f ms/search %8.2f ms/sweep%n", name, dijkstra, sweep);
+    }
+
+    /**
+     * Visits every arc in the order of the node ids and reads and updates a value of both endpoints, like a relaxation
+     * of a search does.
+     */
+    private static long sweep(IndexedRegion graph) {
+        long[] values = new long[graph.getNodeCount()];
+        long sum = 0;
+        for (int u = 0; u < graph.getNodeCount(); u++) {
+            for (int arc = graph.getFirstArc(u), last = graph.getFirstArc(u + 1); arc < last; arc++) {
+                int v = graph.getArcTarget(arc);
+                values[u] = Math.max(values[u], values[v] + graph.getArcDuration(arc));
+                sum += values[v];
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,97 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A simple benchmark comparing the preprocessing time and query latency of the available {@link PathCalculator}s on a
+ * synthetic grid shaped {@link Region}.<p>
+ *
+ * Run it with {@code main} and optionally pass the width of the grid and the amount of queries as arguments.
+ */
+public class PathCalculatorBenchmark {
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 150;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        long buildStart = System.nanoTime();
+        Region region = createGrid(width, width, new Random(42));
+        System.out.printf("Region with %d nodes and %d edges built in %.1f ms%n",
+            region.getNodes().size(), region.getEdges().size(), millisSince(buildStart));
+
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        Random random = new Random(7);
+        Region.Node[][] pairs = new Region.Node[queries][];
+        for (int i = 0; i < queries; i++) {
+            pairs[i] = new Region.Node[] {nodes.get(random.nextInt(nodes.size())), nodes.get(random.nextInt(nodes.size()))};
+        }
+
+        ContractionHierarchiesPathCalculator contractionHierarchies = new ContractionHierarchiesPathCalculator();
+        long preprocessingStart = System.nanoTime();
+        contractionHierarchies.preprocess(region);
+        System.out.printf("Contraction hierarchies preprocessing: %.1f ms%n", millisSince(preprocessingStart));
+
+        LandmarkPathCalculator landmarks = new LandmarkPathCalculator();
+        preprocessingStart = System.nanoTime();
+        landmarks.preprocess(region);
+        System.out.printf("Landmark preprocessing: %.1f ms%n", millisSince(preprocessingStart));
+
+        benchmark("DijkstraPathCalculator", new DijkstraPathCalculator(), pairs);
+        benchmark("IndexedDijkstraPathCalculator", new IndexedDijkstraPathCalculator(), pairs);
+        benchmark("AStarPathCalculator", new AStarPathCalculator(), pairs);
+        benchmark("BidirectionalDijkstraPathCalculator", new BidirectionalDijkstraPathCalculator(), pairs);
+        benchmark("LandmarkPathCalculator", landmarks, pairs);
+        benchmark("ContractionHierarchiesPathCalculator", contractionHierarchies, pairs);
+    }
+
+    /**
+     * Creates a grid shaped {@link Region} with slightly displaced nodes.
+     * @param width The amount of columns.
+     * @param height The amount of rows.
+     * @param random The {@link Random} instance used to displace the nodes.
+     * @return The created {@link Region}.
+     */
+    static Region createGrid(int width, int height, Random random) {
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Location[][] locations = new Location[width][height];
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(5), y * 10 + random.nextInt(5));
+                builder.addNode("N" + x + "_" + y, locations[x][y]);
+            }
+        }
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (x + 1 < width) {
+                    builder.addEdge("H" + x + "_" + y, locations[x][y], locations[x + 1][y]);
+                }
+                if (y + 1 < height) {
+                    builder.addEdge("V" + x + "_" + y, locations[x][y], locations[x][y + 1]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static void benchmark(String name, PathCalculator pathCalculator, Region.Node[][] pairs) {
+        // Warm up the JIT before measuring
+        for (int i = 0; i < Math.min(pairs.length, 20); i++) {
+            pathCalculator.getPath(pairs[i][0], pairs[i][1]);
+        }
+        long start = System.nanoTime();
+        for (Region.Node[] pair : pairs) {
+            pathCalculator.getPath(pair[0], pair[1]);
+        }
+        System.out.printf("%-40s %10.1f us/query%n", name, (System.nanoTime() - start) / 1000.0 / pairs.length);
+    }
+
+    private static double millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,136 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the results of every {@link PathCalculator} with a reference Dijkstra search on random {@link Region}s.
+ */
+public class PathCalculatorUnitTests {
+
+    private static final int QUERIES = 60;
+
+    @TempDir
+    Path directory;
+
+    private Map<String, Supplier<PathCalculator>> pathCalculators() {
+        Map<String, Supplier<PathCalculator>> pathCalculators = new LinkedHashMap<>();
+        pathCalculators.put("Dijkstra", DijkstraPathCalculator::new);
+        pathCalculators.put("IndexedDijkstra", IndexedDijkstraPathCalculator::new);
+        pathCalculators.put("AStar", AStarPathCalculator::new);
+        pathCalculators.put("BidirectionalDijkstra", BidirectionalDijkstraPathCalculator::new);
+        pathCalculators.put("ContractionHierarchies", ContractionHierarchiesPathCalculator::new);
+        pathCalculators.put("Landmark", () -> new LandmarkPathCalculator(4));
+        pathCalculators.put("AllPairs", () -> new AllPairsPathCalculator(directory));
+        pathCalculators.put("Cached", () -> new CachedPathCalculator(new DijkstraPathCalculator(), 16));
+        pathCalculators.put("CachedByMemory", () -> CachedPathCalculator.boundedByMemory(
+            new IndexedDijkstraPathCalculator(), 1 << 16, true));
+        return pathCalculators;
+    }
+
+    @Test
+    public void testGrids() {
+        for (long seed = 0; seed < 4; seed++) {
+            Region region = RandomRegions.grid(new Random(seed), 12, 12, 0.2);
+            for (Map.Entry<String, Supplier<PathCalculator>> entry : pathCalculators().entrySet()) {
+                check(entry.getKey(), entry.getValue().get(), region, seed);
+            }
+        }
+    }
+
+    @Test
+    public void testScatteredRegions() {
+        for (long seed = 0; seed < 4; seed++) {
+            Region region = RandomRegions.scattered(new Random(seed), 120, 200);
+            for (Map.Entry<String, Supplier<PathCalculator>> entry : pathCalculators().entrySet()) {
+                check(entry.getKey(), entry.getValue().get(), region, seed);
+            }
+        }
+    }
+
+    @Test
+    public void testChangedDurations() {
+        for (long seed = 0; seed < 3; seed++) {
+            Random random = new Random(seed);
+            Region region = RandomRegions.grid(random, 10, 10, 0.1);
+            Map<String, PathCalculator> pathCalculators = new LinkedHashMap<>();
+            pathCalculators().forEach((name, pathCalculator) -> pathCalculators.put(name, pathCalculator.get()));
+
+            // The same instances are used after every change, so results of older snapshots must not be reused
+            for (int round = 0; round < 4; round++) {
+                for (Map.Entry<String, PathCalculator> entry : pathCalculators.entrySet()) {
+                    check(entry.getKey() + " after " + round + " changes", entry.getValue(), region, seed);
+                }
+                RandomRegions.changeDurations(random, region, 1 + round);
+            }
+        }
+    }
+
+    private static void check(String name, PathCalculator pathCalculator, Region region, long seed) {
+        Random random = new Random(seed);
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        nodes.sort(Comparator.naturalOrder());
+
+        for (int query = 0; query < QUERIES; query++) {
+            Region.Node start = nodes.get(random.nextInt(nodes.size()));
+            Region.Node end = nodes.get(random.nextInt(nodes.size()));
+            Long distance = RandomRegions.referenceDistances(region, end).get(start);
+            String context = "%s: %s -> %s".formatted(name, start.getName(), end.getName());
+
+            if (distance == null) {
+                assertThrows(IllegalArgumentException.class, () -> pathCalculator.getPath(start, end), context);
+                assertThrows(IllegalArgumentException.class, () -> pathCalculator.getDistance(start, end), context);
+                continue;
+            }
+            long expected = distance;
+            Deque<Region.Node> path = pathCalculator.getPath(start, end);
+            if (start.equals(end)) {
+                assertTrue(path.isEmpty(), context);
+            } else {
+                assertEquals(end, path.peekLast(), context);
+            }
+            assertEquals(expected, RandomRegions.duration(region, start, path), context);
+            assertEquals(expected, pathCalculator.getDistance(start, end), context);
+        }
+
+        for (int query = 0; query < 3; query++) {
+            Region.Node end = nodes.get(random.nextInt(nodes.size()));
+            Map<Region.Node, Long> expected = RandomRegions.referenceDistances(region, end);
+            String context = "%s: tree of %s".formatted(name, end.getName());
+
+            ShortestPathTree tree = pathCalculator.getShortestPathTree(end);
+            Map<Region.Node, Deque<Region.Node>> paths = pathCalculator.getAllPathsTo(end);
+            assertEquals(expected.size(), tree.getReachableCount(), context);
+            assertEquals(expected.size(), paths.size(), context);
+            for (Region.Node node : nodes) {
+                long distance = expected.getOrDefault(node, ShortestPathTree.UNREACHABLE);
+                assertEquals(distance, tree.getDistance(node), context);
+                if (distance != ShortestPathTree.UNREACHABLE) {
+                    assertEquals(distance, RandomRegions.duration(region, node, tree.getPath(node)), context);
+                    assertEquals(distance, RandomRegions.duration(region, node, paths.get(node)), context);
+                }
+            }
+        }
+
+        List<Region.Node> sources = new ArrayList<>();
+        List<Region.Node> targets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sources.add(nodes.get(random.nextInt(nodes.size())));
+            targets.add(nodes.get(random.nextInt(nodes.size())));
+        }
+        long[][] table = pathCalculator.getDistanceTable(sources, targets);
+        for (int j = 0; j < targets.size(); j++) {
+            Map<Region.Node, Long> expected = RandomRegions.referenceDistances(region, targets.get(j));
+            for (int i = 0; i < sources.size(); i++) {
+                assertEquals((long) expected.getOrDefault(sources.get(i), ShortestPathTree.UNREACHABLE), table[i][j],
+                    "%s: table entry %d, %d".formatted(name, i, j));
+            }
+        }
+    }
+}
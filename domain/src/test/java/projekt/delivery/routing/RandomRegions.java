@@ -0,0 +1,183 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.*;
+
+/**
+ * Creates random {@link Region}s for the tests of the {@link PathCalculator}s and computes reference results on them
+ * with a plain Dijkstra search over {@link Region#getEdges()}, which does not use any of the precomputed structures of
+ * the {@link Region}.
+ */
+final class RandomRegions {
+
+    private RandomRegions() {
+    }
+
+    /**
+     * Creates a grid shaped {@link Region} with slightly moved nodes. Every tenth node is a restaurant and every third
+     * one a neighborhood.
+     * @param random The source of randomness.
+     * @param width The amount of nodes per row.
+     * @param height The amount of nodes per column.
+     * @param dropRate The probability of every edge of the grid to be left out, so the {@link Region} may be disconnected.
+     * @return The created {@link Region}.
+     */
+    static Region grid(Random random, int width, int height, double dropRate) {
+        return grid(random, width, height, dropRate, Set.of());
+    }
+
+    /**
+     * Creates a grid shaped {@link Region} like {@link #grid(Random, int, int, double)}, leaving out the edges with the
+     * given names. Two calls with equally seeded {@link Random}s create the same nodes and edges, except for the
+     * skipped ones.
+     * @param random The source of randomness.
+     * @param width The amount of nodes per row.
+     * @param height The amount of nodes per column.
+     * @param dropRate The probability of every edge of the grid to be left out.
+     * @param skippedEdges The names of the edges to leave out.
+     * @return The created {@link Region}.
+     */
+    static Region grid(Random random, int width, int height, double dropRate, Set<String> skippedEdges) {
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        Location[][] locations = new Location[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(5), y * 10 + random.nextInt(5));
+                addNode(builder, "N" + x + "_" + y, locations[x][y], x * height + y);
+            }
+        }
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                boolean horizontal = random.nextDouble() >= dropRate;
+                boolean vertical = random.nextDouble() >= dropRate;
+                String horizontalName = "H" + x + "_" + y;
+                String verticalName = "V" + x + "_" + y;
+                if (x + 1 < width && horizontal && !skippedEdges.contains(horizontalName)) {
+                    builder.addEdge(horizontalName, locations[x][y], locations[x + 1][y]);
+                }
+                if (y + 1 < height && vertical && !skippedEdges.contains(verticalName)) {
+                    builder.addEdge(verticalName, locations[x][y], locations[x][y + 1]);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a {@link Region} with nodes at random {@link Location}s and edges between random pairs of nodes. Some
+     * nodes may not be connected to any other node.
+     * @param random The source of randomness.
+     * @param nodeCount The amount of nodes.
+     * @param edgeCount The amount of edges to try to add, duplicates are skipped.
+     * @return The created {@link Region}.
+     */
+    static Region scattered(Random random, int nodeCount, int edgeCount) {
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        List<Location> locations = new ArrayList<>();
+        Set<Location> used = new HashSet<>();
+        while (locations.size() < nodeCount) {
+            Location location = new Location(random.nextInt(-200, 200), random.nextInt(-200, 200));
+            if (used.add(location)) {
+                addNode(builder, "N" + locations.size(), location, locations.size());
+                locations.add(location);
+            }
+        }
+        Set<List<Location>> connected = new HashSet<>();
+        for (int i = 0; i < edgeCount; i++) {
+            Location locationA = locations.get(random.nextInt(nodeCount));
+            Location locationB = locations.get(random.nextInt(nodeCount));
+            if (!locationA.equals(locationB) && connected.add(List.of(locationA, locationB))
+                && connected.add(List.of(locationB, locationA))) {
+                builder.addEdge("E" + i, locationA, locationB);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Changes the durations of random edges of the given {@link Region}, making some of them longer and some of them
+     * shorter than the distance between their nodes.
+     * @param random The source of randomness.
+     * @param region The {@link Region} to change.
+     * @param changes The amount of durations to change.
+     */
+    static void changeDurations(Random random, Region region, int changes) {
+        for (int i = 0; i < changes; i++) {
+            List<Region.Edge> edges = new ArrayList<>(region.getEdges());
+            Region.Edge edge = edges.get(random.nextInt(edges.size()));
+            long duration = random.nextBoolean()
+                ? edge.getDuration() * (2 + random.nextInt(10))
+                : edge.getDuration() / (2 + random.nextInt(4));
+            region.updateDuration(edge, duration);
+        }
+    }
+
+    /**
+     * Calculates the durations of the shortest paths from all nodes to the given end node.
+     * @param region The {@link Region} to search.
+     * @param end The end node.
+     * @return The durations of the shortest paths of all reachable nodes.
+     */
+    static Map<Region.Node, Long> referenceDistances(Region region, Region.Node end) {
+        Map<Region.Node, List<Region.Edge>> adjacentEdges = new HashMap<>();
+        for (Region.Edge edge : region.getEdges()) {
+            adjacentEdges.computeIfAbsent(edge.getNodeA(), node -> new ArrayList<>()).add(edge);
+            adjacentEdges.computeIfAbsent(edge.getNodeB(), node -> new ArrayList<>()).add(edge);
+        }
+
+        Map<Region.Node, Long> distances = new HashMap<>();
+        Set<Region.Node> settled = new HashSet<>();
+        PriorityQueue<Map.Entry<Region.Node, Long>> queue = new PriorityQueue<>(Map.Entry.comparingByValue());
+        distances.put(end, 0L);
+        queue.add(Map.entry(end, 0L));
+        while (!queue.isEmpty()) {
+            Region.Node node = queue.poll().getKey();
+            if (!settled.add(node)) {
+                continue;
+            }
+            for (Region.Edge edge : adjacentEdges.getOrDefault(node, List.of())) {
+                Region.Node other = edge.getNodeA().equals(node) ? edge.getNodeB() : edge.getNodeA();
+                long distance = distances.get(node) + edge.getDuration();
+                if (distance < distances.getOrDefault(other, Long.MAX_VALUE)) {
+                    distances.put(other, distance);
+                    queue.add(Map.entry(other, distance));
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Returns the duration of the given path, which excludes its start node.
+     * @param region The {@link Region} of the path.
+     * @param start The start node of the path.
+     * @param path The nodes following the start node.
+     * @return The sum of the durations of all edges of the path.
+     * @throws AssertionError If two consecutive nodes of the path are not connected.
+     */
+    static long duration(Region region, Region.Node start, Collection<Region.Node> path) {
+        long duration = 0;
+        Region.Node previous = start;
+        for (Region.Node node : path) {
+            Region.Edge edge = region.getEdge(previous.getLocation(), node.getLocation());
+            if (edge == null) {
+                throw new AssertionError("The path contains the unconnected nodes %s and %s".formatted(previous, node));
+            }
+            duration += edge.getDuration();
+            previous = node;
+        }
+        return duration;
+    }
+
+    private static void addNode(Region.Builder builder, String name, Location location, int index) {
+        if (index % 10 == 0) {
+            builder.addRestaurant(name, location, List.of("Pizza"));
+        } else if (index % 3 == 0) {
+            builder.addNeighborhood(name, location);
+        } else {
+            builder.addNode(name, location);
+        }
+    }
+}
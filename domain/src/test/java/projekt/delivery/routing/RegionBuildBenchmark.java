@@ -0,0 +1,74 @@
+package projekt.delivery.routing;
+
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.Random;
+
+/**
+ * A simple benchmark comparing the construction of a grid shaped {@link Region} with a {@link Region.Builder} and
+ * with a {@link Region.BulkBuilder}.<p>
+ *
+ * Run it with {@code main} and optionally pass the width of the grid as argument. The default grid has 1 000 000
+ * nodes, so the JVM needs a few gigabytes of heap.
+ */
+public class RegionBuildBenchmark {
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        Location[][] locations = new Location[width][width];
+        Random random = new Random(42);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < width; y++) {
+                locations[x][y] = new Location(x * 10 + random.nextInt(5), y * 10 + random.nextInt(5));
+            }
+        }
+
+        long start = System.nanoTime();
+        Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < width; y++) {
+                builder.addNode("N" + x + "_" + y, locations[x][y]);
+            }
+        }
+        forEachEdge(locations, builder::addEdge);
+        Region region = builder.build();
+        System.out.printf("Builder: %d nodes and %d edges in %.1f ms%n",
+            region.getNodes().size(), region.getEdges().size(), millisSince(start));
+        region = null;
+
+        start = System.nanoTime();
+        Region.BulkBuilder bulkBuilder = Region.bulkBuilder(width * width, 2 * width * width)
+            .distanceCalculator(new EuclideanDistanceCalculator());
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < width; y++) {
+                bulkBuilder.addNode("N" + x + "_" + y, locations[x][y]);
+            }
+        }
+        forEachEdge(locations, bulkBuilder::addEdge);
+        region = bulkBuilder.build();
+        System.out.printf("BulkBuilder: %d nodes and %d edges in %.1f ms%n",
+            region.getNodes().size(), region.getEdges().size(), millisSince(start));
+    }
+
+    private static void forEachEdge(Location[][] locations, EdgeConsumer consumer) {
+        for (int x = 0; x < locations.length; x++) {
+            for (int y = 0; y < locations[x].length; y++) {
+                if (x + 1 < locations.length) {
+                    consumer.accept("E" + x + "_" + y + "_h", locations[x][y], locations[x + 1][y]);
+                }
+                if (y + 1 < locations[x].length) {
+                    consumer.accept("E" + x + "_" + y + "_v", locations[x][y], locations[x][y + 1]);
+                }
+            }
+        }
+    }
+
+    private static double millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    private interface EdgeConsumer {
+        void accept(String name, Location locationA, Location locationB);
+    }
+}
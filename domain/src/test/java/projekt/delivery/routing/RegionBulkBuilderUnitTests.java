@@ -0,0 +1,142 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a {@link Region.BulkBuilder} builds the same {@link Region}s as a {@link Region.Builder}.
+ */
+public class RegionBulkBuilderUnitTests {
+
+    @Test
+    public void testEqualsBuilder() {
+        for (long seed = 0; seed < 4; seed++) {
+            Random random = new Random(seed);
+            List<Location> locations = new ArrayList<>();
+            Set<Location> used = new HashSet<>();
+            while (locations.size() < 150) {
+                Location location = new Location(random.nextInt(-300, 300), random.nextInt(-300, 300));
+                if (used.add(location)) {
+                    locations.add(location);
+                }
+            }
+            List<Location[]> edges = new ArrayList<>();
+            Set<List<Location>> connected = new HashSet<>();
+            for (int i = 0; i < 400; i++) {
+                Location locationA = locations.get(random.nextInt(locations.size()));
+                Location locationB = locations.get(random.nextInt(locations.size()));
+                if (!locationA.equals(locationB) && connected.add(List.of(locationA, locationB))
+                    && connected.add(List.of(locationB, locationA))) {
+                    edges.add(new Location[] {locationA, locationB});
+                }
+            }
+
+            Region.Builder builder = Region.builder().distanceCalculator(new EuclideanDistanceCalculator());
+            Region.BulkBuilder bulkBuilder = Region.bulkBuilder(16, 16)
+                .distanceCalculator(new EuclideanDistanceCalculator());
+            for (int i = 0; i < locations.size(); i++) {
+                if (i % 10 == 0) {
+                    builder.addRestaurant("R" + i, locations.get(i), List.of("Pizza", "Pasta"));
+                    bulkBuilder.addRestaurant("R" + i, locations.get(i), List.of("Pizza", "Pasta"));
+                } else if (i % 3 == 0) {
+                    builder.addNeighborhood("H" + i, locations.get(i));
+                    bulkBuilder.addNeighborhood("H" + i, locations.get(i));
+                } else {
+                    builder.addNode("N" + i, locations.get(i));
+                    bulkBuilder.addNode("N" + i, locations.get(i));
+                }
+            }
+            for (int i = 0; i < edges.size(); i++) {
+                builder.addEdge("E" + i, edges.get(i)[0], edges.get(i)[1]);
+                bulkBuilder.addEdge("E" + i, edges.get(i)[0], edges.get(i)[1]);
+            }
+
+            assertRegionEquals(builder.build(), bulkBuilder.build());
+        }
+    }
+
+    @Test
+    public void testEqualsBuilderGrid() {
+        Region expected = RandomRegions.grid(new Random(4), 15, 15, 0.1);
+        Region.BulkBuilder bulkBuilder = Region.bulkBuilder(0, 0).distanceCalculator(new EuclideanDistanceCalculator());
+        for (Region.Node node : expected.getNodes()) {
+            if (node instanceof Region.Restaurant restaurant) {
+                bulkBuilder.addRestaurant(node.getName(), node.getLocation(), restaurant.getAvailableFood());
+            } else if (node instanceof Region.Neighborhood) {
+                bulkBuilder.addNeighborhood(node.getName(), node.getLocation());
+            } else {
+                bulkBuilder.addNode(node.getName(), node.getLocation());
+            }
+        }
+        // Edges are added in reverse direction, the builders sort their endpoints
+        for (Region.Edge edge : expected.getEdges()) {
+            bulkBuilder.addEdge(edge.getName(), edge.getNodeB().getLocation(), edge.getNodeA().getLocation());
+        }
+
+        assertRegionEquals(expected, bulkBuilder.build());
+    }
+
+    @Test
+    public void testDuplicates() {
+        Location locationA = new Location(0, 0);
+        Location locationB = new Location(1, 0);
+        Location locationC = new Location(0, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> bulkBuilder(locationA, locationB).addNode("A", locationC));
+        assertThrows(IllegalArgumentException.class, () -> bulkBuilder(locationA, locationB).addNode("C", locationA));
+        assertThrows(IllegalArgumentException.class,
+            () -> bulkBuilder(locationA, locationB).addEdge("A", locationA, locationB));
+        assertThrows(IllegalArgumentException.class, () -> bulkBuilder(locationA, locationB)
+            .addEdge("AB", locationA, locationB)
+            .addEdge("BA", locationB, locationA)
+            .build());
+        assertThrows(IllegalArgumentException.class, () -> bulkBuilder(locationA, locationB)
+            .addEdge("AC", locationA, locationC)
+            .build());
+        assertThrows(IllegalArgumentException.class, () -> Region.bulkBuilder(-1, 0));
+        assertThrows(NullPointerException.class, () -> Region.bulkBuilder(0, 0).build());
+    }
+
+    @Test
+    public void testRejectedNodeKeepsName() {
+        Location location = new Location(0, 0);
+        Region.BulkBuilder bulkBuilder = bulkBuilder(location, new Location(1, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> bulkBuilder.addNode("C", location));
+        Region region = bulkBuilder.addNode("C", new Location(2, 0)).build();
+        assertEquals(3, region.getNodes().size());
+    }
+
+    private static Region.BulkBuilder bulkBuilder(Location locationA, Location locationB) {
+        return Region.bulkBuilder(2, 1)
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addNode("A", locationA)
+            .addNode("B", locationB);
+    }
+
+    private static void assertRegionEquals(Region expected, Region actual) {
+        assertEquals(expected, actual);
+        assertEquals(new ArrayList<>(expected.getEdges()), new ArrayList<>(actual.getEdges()));
+        for (Region.Node node : expected.getNodes()) {
+            Region.Node other = actual.getNode(node.getLocation());
+            assertNotNull(other);
+            assertSame(node.getClass(), other.getClass());
+            assertEquals(node.getAdjacentEdges(), other.getAdjacentEdges());
+            assertEquals(node.getAdjacentNodes(), other.getAdjacentNodes());
+            if (node instanceof Region.Restaurant restaurant) {
+                assertEquals(restaurant.getAvailableFood(), ((Region.Restaurant) other).getAvailableFood());
+            }
+        }
+        IndexedRegion expectedGraph = expected.getIndexedRegion();
+        IndexedRegion actualGraph = actual.getIndexedRegion();
+        assertEquals(expectedGraph.getNodeCount(), actualGraph.getNodeCount());
+        for (int node = 0; node < expectedGraph.getNodeCount(); node++) {
+            assertEquals(expectedGraph.getNode(node), actualGraph.getNode(node));
+        }
+    }
+}
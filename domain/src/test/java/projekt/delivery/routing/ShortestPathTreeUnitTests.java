@@ -0,0 +1,200 @@
+package projekt.delivery.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares repaired and migrated {@link ShortestPathTree}s with freshly computed ones and with a reference Dijkstra search.
+ */
+public class ShortestPathTreeUnitTests {
+
+    @Test
+    public void testUpdate() {
+        for (long seed = 0; seed < 4; seed++) {
+            Random random = new Random(seed);
+            Region region = RandomRegions.grid(random, 12, 12, 0.15);
+            List<Region.Node> nodes = sortedNodes(region);
+            List<ShortestPathTree> trees = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                trees.add(ShortestPathTree.of(nodes.get(random.nextInt(nodes.size()))));
+            }
+
+            for (int round = 0; round < 40; round++) {
+                IndexedRegion previous = region.getIndexedRegion();
+                RandomRegions.changeDurations(random, region, 1);
+                IndexedRegion current = region.getIndexedRegion();
+                for (int i = 0; i < trees.size(); i++) {
+                    ShortestPathTree tree = trees.get(i).update(current, 1);
+                    assertNotNull(tree, "seed %d, round %d".formatted(seed, round));
+                    assertSame(current, tree.getGraph());
+                    if (previous != current) {
+                        assertSame(previous, trees.get(i).getGraph(), "The repaired tree must not change");
+                    }
+                    assertTreeEquals(region, tree, "seed %d, round %d".formatted(seed, round));
+                    trees.set(i, tree);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUpdateMultipleChanges() {
+        Random random = new Random(7);
+        Region region = RandomRegions.grid(random, 10, 10, 0.1);
+        List<Region.Node> nodes = sortedNodes(region);
+        ShortestPathTree tree = ShortestPathTree.of(nodes.get(random.nextInt(nodes.size())));
+
+        List<Region.Edge> edges = new ArrayList<>(region.getEdges());
+        for (int i = 0; i < 3; i++) {
+            Region.Edge edge = edges.get(random.nextInt(edges.size()));
+            region.updateDuration(edge, edge.getDuration() * 3 + 1);
+            edges = new ArrayList<>(region.getEdges());
+            edge = edges.get(random.nextInt(edges.size()));
+            region.updateDuration(edge, edge.getDuration() / 3);
+            edges = new ArrayList<>(region.getEdges());
+        }
+
+        assertNull(tree.update(region.getIndexedRegion(), 2), "More changes than allowed must not be applied");
+        ShortestPathTree updated = tree.update(region.getIndexedRegion(), 6);
+        assertNotNull(updated);
+        assertTreeEquals(region, updated, "after 6 changes");
+        assertSame(updated, updated.update(region.getIndexedRegion(), 0));
+    }
+
+    @Test
+    public void testUpdateUnrelatedSnapshot() {
+        Region region = RandomRegions.grid(new Random(1), 6, 6, 0.0);
+        Region copy = RandomRegions.grid(new Random(1), 6, 6, 0.0);
+        ShortestPathTree tree = ShortestPathTree.of(sortedNodes(region).get(0));
+
+        assertNull(tree.update(copy.getIndexedRegion(), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testUpdateDurationReplacesEdge() {
+        Region region = RandomRegions.grid(new Random(3), 5, 5, 0.0);
+        Region.Edge edge = new ArrayList<>(region.getEdges()).get(7);
+        long duration = edge.getDuration();
+
+        region.updateDuration(edge, duration * 2 + 1);
+        Region.Edge replacement = region.getEdge(edge.getNodeA(), edge.getNodeB());
+
+        assertEquals(duration, edge.getDuration(), "Edges are immutable");
+        assertNotNull(replacement);
+        assertEquals(duration * 2 + 1, replacement.getDuration());
+        assertEquals(edge.getName(), replacement.getName());
+        assertTrue(region.getEdges().contains(replacement));
+        assertFalse(region.getEdges().stream().anyMatch(e -> e == edge));
+        assertTrue(replacement.getNodeA().getAdjacentEdges().contains(replacement));
+        assertTrue(replacement.getNodeB().getAdjacentEdges().contains(replacement));
+        IndexedRegion graph = region.getIndexedRegion();
+        assertSame(replacement, graph.getEdge(graph.indexOfEdge(replacement)));
+
+        // The replaced edge still identifies the street
+        region.updateDuration(edge, duration);
+        assertEquals(duration, region.getEdge(edge.getNodeA(), edge.getNodeB()).getDuration());
+        assertThrows(IllegalArgumentException.class, () -> region.updateDuration(edge, -1));
+    }
+
+    @Test
+    public void testMigrate() {
+        for (long seed = 0; seed < 4; seed++) {
+            Random random = new Random(seed);
+            Set<String> removed = new HashSet<>();
+            for (int i = 0; i < 12; i++) {
+                removed.add((random.nextBoolean() ? "H" : "V") + random.nextInt(10) + "_" + random.nextInt(10));
+            }
+            Region full = RandomRegions.grid(new Random(seed), 10, 10, 0.05);
+            Region reduced = RandomRegions.grid(new Random(seed), 10, 10, 0.05, removed);
+            RandomRegions.changeDurations(random, reduced, 5);
+
+            // Removing streets and adding them again must both lead to the freshly computed trees
+            assertMigrated(full, reduced, random, "seed %d, removed".formatted(seed));
+            assertMigrated(reduced, full, random, "seed %d, added".formatted(seed));
+        }
+    }
+
+    @Test
+    public void testMigrateUnchanged() {
+        Region region = RandomRegions.grid(new Random(5), 8, 8, 0.1);
+        Region copy = RandomRegions.grid(new Random(5), 8, 8, 0.1);
+        RegionDiff diff = RegionDiff.between(region.getIndexedRegion(), copy.getIndexedRegion());
+        assertNotNull(diff);
+        assertTrue(diff.getWorse().isEmpty());
+        assertTrue(diff.getBetter().isEmpty());
+
+        ShortestPathTree tree = ShortestPathTree.of(sortedNodes(region).get(3));
+        ShortestPathTree migrated = tree.migrate(diff);
+        assertSame(copy.getIndexedRegion(), migrated.getGraph());
+        assertTreeEquals(copy, migrated, "unchanged");
+    }
+
+    @Test
+    public void testMigrateDifferentNodes() {
+        Region region = RandomRegions.grid(new Random(5), 8, 8, 0.1);
+        Region other = RandomRegions.grid(new Random(5), 8, 7, 0.1);
+        Region moved = RandomRegions.grid(new Random(6), 8, 8, 0.1);
+
+        assertNull(RegionDiff.between(region.getIndexedRegion(), other.getIndexedRegion()));
+        assertNull(RegionDiff.between(region.getIndexedRegion(), moved.getIndexedRegion()));
+    }
+
+    @Test
+    public void testCachedPathCalculatorMigrates() {
+        Region full = RandomRegions.grid(new Random(9), 10, 10, 0.0);
+        Region reduced = RandomRegions.grid(new Random(9), 10, 10, 0.0, Set.of("H4_4", "V4_4", "H2_7", "V8_1"));
+        CachedPathCalculator pathCalculator = new CachedPathCalculator(new DijkstraPathCalculator(), 16);
+        List<Region.Node> nodes = sortedNodes(full);
+        for (int i = 0; i < 5; i++) {
+            pathCalculator.getShortestPathTree(nodes.get(i * 17));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            Region.Node end = reduced.getNode(nodes.get(i * 17).getLocation());
+            assertTreeEquals(reduced, pathCalculator.getShortestPathTree(end), "cached " + end.getName());
+        }
+        CachedPathCalculator.Statistics statistics = pathCalculator.getStatistics();
+        assertEquals(5, statistics.misses());
+        assertEquals(5, statistics.repairs());
+    }
+
+    private static void assertMigrated(Region from, Region to, Random random, String context) {
+        RegionDiff diff = RegionDiff.between(from.getIndexedRegion(), to.getIndexedRegion());
+        assertNotNull(diff, context);
+        List<Region.Node> nodes = sortedNodes(from);
+        for (int i = 0; i < 8; i++) {
+            ShortestPathTree tree = ShortestPathTree.of(nodes.get(random.nextInt(nodes.size())));
+            ShortestPathTree migrated = tree.migrate(diff);
+            assertSame(to.getIndexedRegion(), migrated.getGraph(), context);
+            assertSame(from.getIndexedRegion(), tree.getGraph(), context);
+            assertTreeEquals(to, migrated, context + ", root " + tree.getRoot().getName());
+        }
+    }
+
+    static List<Region.Node> sortedNodes(Region region) {
+        List<Region.Node> nodes = new ArrayList<>(region.getNodes());
+        nodes.sort(Comparator.naturalOrder());
+        return nodes;
+    }
+
+    static void assertTreeEquals(Region region, ShortestPathTree tree, String context) {
+        Region.Node root = region.getNode(tree.getRoot().getLocation());
+        ShortestPathTree expected = ShortestPathTree.of(root);
+        Map<Region.Node, Long> reference = RandomRegions.referenceDistances(region, root);
+
+        assertEquals(expected.getReachableCount(), tree.getReachableCount(), context);
+        assertEquals(reference.size(), tree.getReachableCount(), context);
+        for (Region.Node node : region.getNodes()) {
+            long distance = reference.getOrDefault(node, ShortestPathTree.UNREACHABLE);
+            assertEquals(expected.getDistance(node), tree.getDistance(node), context + ", " + node.getName());
+            assertEquals(distance, tree.getDistance(node), context + ", " + node.getName());
+            if (distance != ShortestPathTree.UNREACHABLE) {
+                assertEquals(distance, RandomRegions.duration(region, node, tree.getPath(node)),
+                    context + ", path of " + node.getName());
+            }
+        }
+    }
+}
@@ -86,9 +86,11 @@ public class MainMenuScene extends MenuScene<MainMenuSceneController> {
             //Execute the GUIRunner in a separate Thread to prevent it from blocking the GUI
             new Thread(() -> {
                 ProblemGroup problemGroup = new ProblemGroupImpl(problems, problems.get(0).raterFactoryMap().keySet().stream().toList());
+                SimulationConfig simulationConfig = new SimulationConfig(20);
+                simulationConfig.setWarmUp(true);
                 new RunnerImpl().run(
                     problemGroup,
-                    new SimulationConfig(20),
+                    simulationConfig,
                     simulationRuns,
                     deliveryServiceFactory,
                     (simulation, problem, i) -> {
@@ -18,7 +18,7 @@ public class RegionIO {
     );
 
     public static Region readRegion(BufferedReader reader) {
-        Region.Builder builder = Region.builder();
+        Region.BulkBuilder builder = Region.bulkBuilder();
 
         try {
 
@@ -115,7 +115,7 @@ public class RegionIO {
     }
 
     private static Location parseLocation(String x, String y) {
-        return new Location(Integer.parseInt(x), Integer.parseInt(y));
+        return Location.of(Integer.parseInt(x), Integer.parseInt(y));
     }
 
     private static DistanceCalculator parseDistanceCalculator(String serializedDistanceCalculator) {
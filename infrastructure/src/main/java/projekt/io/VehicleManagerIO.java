@@ -6,17 +6,30 @@ import projekt.delivery.routing.*;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 public class VehicleManagerIO {
 
-    private static final Map<String, Function<Object, ? extends PathCalculator>> DESERIALIZED_PATH_CALCULATOR = Map.of(
-        CachedPathCalculator.class.getSimpleName(), pathCalculator -> new CachedPathCalculator((PathCalculator) pathCalculator),
-        DijkstraPathCalculator.class.getSimpleName(), ignored -> new DijkstraPathCalculator()
+    private static final Map<String, BiFunction<PathCalculator, Map<String, String>, ? extends PathCalculator>> DESERIALIZED_PATH_CALCULATOR = Map.of(
+        AllPairsPathCalculator.class.getSimpleName(), (ignored, parameters) -> new AllPairsPathCalculator(),
+        AStarPathCalculator.class.getSimpleName(), (ignored, parameters) -> new AStarPathCalculator(),
+        BidirectionalDijkstraPathCalculator.class.getSimpleName(), (ignored, parameters) -> new BidirectionalDijkstraPathCalculator(),
+        CachedPathCalculator.class.getSimpleName(), VehicleManagerIO::parseCachedPathCalculator,
+        ContractionHierarchiesPathCalculator.class.getSimpleName(), (ignored, parameters) -> new ContractionHierarchiesPathCalculator(),
+        DijkstraPathCalculator.class.getSimpleName(), (ignored, parameters) -> new DijkstraPathCalculator(),
+        IndexedDijkstraPathCalculator.class.getSimpleName(), (ignored, parameters) -> new IndexedDijkstraPathCalculator(),
+        LandmarkPathCalculator.class.getSimpleName(), (ignored, parameters) -> new LandmarkPathCalculator()
     );
 
+    /**
+     * The names of the path calculators that wrap the following path calculator and accept parameters.
+     */
+    private static final Set<String> WRAPPING_PATH_CALCULATORS = Set.of(CachedPathCalculator.class.getSimpleName());
+
     public static VehicleManager readVehicleManager(BufferedReader reader, Region region) {
 
         VehicleManager.Builder builder = VehicleManager.builder();
@@ -42,7 +55,7 @@ public class VehicleManagerIO {
                 }
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new RuntimeException(e);
         }
 
         return builder.build();
@@ -74,39 +87,129 @@ public class VehicleManagerIO {
     }
 
     private static Location parseLocation(String x, String y) {
-        return new Location(Integer.parseInt(x), Integer.parseInt(y));
+        return Location.of(Integer.parseInt(x), Integer.parseInt(y));
     }
 
     private static String serializePathCalculator(PathCalculator pathCalculator) {
         StringBuilder sb = new StringBuilder();
-        sb.append(pathCalculator.getClass().getSimpleName());
+        sb.append(serializePathCalculatorName(pathCalculator));
 
         while (pathCalculator instanceof CachedPathCalculator cachedPathCalculator) {
             pathCalculator = cachedPathCalculator.getDelegate();
-            sb.append(",%s".formatted(pathCalculator.getClass().getSimpleName()));
+            sb.append(",%s".formatted(serializePathCalculatorName(pathCalculator)));
         }
 
         return sb.toString();
     }
 
-    private static PathCalculator parsePathCalculator(String serializedPathCalculator) {
+    /**
+     * Serializes the name of the given {@link PathCalculator} followed by its parameters in parentheses, e.g.
+     * {@code CachedPathCalculator(memory=64M;soft)}. The parameters are omitted if they have their default values.
+     */
+    private static String serializePathCalculatorName(PathCalculator pathCalculator) {
+        String name = pathCalculator.getClass().getSimpleName();
+
+        if (pathCalculator instanceof CachedPathCalculator cachedPathCalculator) {
+            if (cachedPathCalculator.getMemoryBudget() > 0) {
+                return "%s(memory=%d%s)".formatted(name, cachedPathCalculator.getMemoryBudget(),
+                    cachedPathCalculator.usesSoftReferences() ? ";soft" : "");
+            } else if (cachedPathCalculator.getSize() != CachedPathCalculator.DEFAULT_SIZE) {
+                return "%s(size=%d)".formatted(name, cachedPathCalculator.getSize());
+            }
+        }
+
+        return name;
+    }
+
+    /**
+     * Parses a comma separated chain of path calculators, e.g. {@code CachedPathCalculator(size=64),DijkstraPathCalculator}.
+     * Every path calculator except the last one has to wrap the following one.
+     *
+     * @throws IOException If the chain contains an unknown path calculator, a path calculator that cannot wrap the
+     *                     following one or parameters of a path calculator that takes none.
+     */
+    private static PathCalculator parsePathCalculator(String serializedPathCalculator) throws IOException {
         String[] split = serializedPathCalculator.split(",");
-        PathCalculator currentPC;
-        try {
-            currentPC = DESERIALIZED_PATH_CALCULATOR.get(split[split.length - 1]).apply(null);
-        } catch (NullPointerException e) {
-            throw new RuntimeException("unknown name of pathCalculator: %s".formatted(serializedPathCalculator));
+        PathCalculator currentPC = null;
+
+        // The innermost path calculator is the last one, every other one is cached and wraps the following one
+        for (int i = split.length - 1; i >= 0; i--) {
+            String serializedName = split[i].trim();
+            Map<String, String> parameters = new HashMap<>();
+            int parametersStart = serializedName.indexOf('(');
+
+            if (parametersStart >= 0) {
+                if (!serializedName.endsWith(")")) {
+                    throw new IOException("illegal parameters of pathCalculator %s in %s".formatted(serializedName,
+                        serializedPathCalculator));
+                }
+                for (String parameter : serializedName.substring(parametersStart + 1, serializedName.length() - 1).split(";")) {
+                    String[] keyValue = parameter.split("=", 2);
+                    parameters.put(keyValue[0].trim(), keyValue.length > 1 ? keyValue[1].trim() : "");
+                }
+                serializedName = serializedName.substring(0, parametersStart);
+            }
+
+            var factory = DESERIALIZED_PATH_CALCULATOR.get(serializedName);
+            if (factory == null) {
+                throw new IOException("unknown name of pathCalculator: %s".formatted(serializedPathCalculator));
+            }
+            boolean wrapping = WRAPPING_PATH_CALCULATORS.contains(serializedName);
+            if (currentPC != null && !wrapping) {
+                // Otherwise the following path calculators would be dropped silently
+                throw new IOException("pathCalculator %s cannot wrap %s in %s".formatted(serializedName,
+                    split[i + 1].trim(), serializedPathCalculator));
+            }
+            if (currentPC == null && wrapping) {
+                throw new IOException("pathCalculator %s needs a pathCalculator to wrap in %s".formatted(serializedName,
+                    serializedPathCalculator));
+            }
+            if (!wrapping && parametersStart >= 0 && !parameters.equals(Map.of("", ""))) {
+                throw new IOException("pathCalculator %s does not take parameters in %s".formatted(serializedName,
+                    serializedPathCalculator));
+            }
+            currentPC = factory.apply(currentPC, parameters);
         }
 
-        PathCalculator returnPC = currentPC;
+        return currentPC;
+    }
 
-        //handle cached Path Calculators
-        for (int i = split.length - 2; i >= 0; i--) {
-            PathCalculator PC;
-            PC = DESERIALIZED_PATH_CALCULATOR.get(split[i]).apply(currentPC);
-            currentPC = PC;
+    /**
+     * Creates a {@link CachedPathCalculator} from the given parameters. Supported parameters are {@code size=<entries>}
+     * for a cache bounded by the amount of entries, {@code memory=<bytes>} for a cache bounded by memory, where the
+     * amount of bytes may end with {@code K}, {@code M} or {@code G}, and {@code soft} to keep evicted entries as soft
+     * references.
+     */
+    private static CachedPathCalculator parseCachedPathCalculator(PathCalculator delegate, Map<String, String> parameters) {
+        if (delegate == null) {
+            throw new RuntimeException("CachedPathCalculator needs a pathCalculator to delegate to");
         }
+        for (String key : parameters.keySet()) {
+            if (!key.equals("size") && !key.equals("memory") && !key.equals("soft")) {
+                throw new RuntimeException("unknown parameter of CachedPathCalculator: %s".formatted(key));
+            }
+        }
+
+        if (parameters.containsKey("memory")) {
+            return CachedPathCalculator.boundedByMemory(delegate, parseBytes(parameters.get("memory")),
+                parameters.containsKey("soft"));
+        } else if (parameters.containsKey("soft")) {
+            throw new RuntimeException("soft references are only supported by memory bounded caches");
+        } else if (parameters.containsKey("size")) {
+            return new CachedPathCalculator(delegate, Integer.parseInt(parameters.get("size")));
+        }
+        return new CachedPathCalculator(delegate);
+    }
 
-        return returnPC;
+    private static long parseBytes(String bytes) {
+        String upperCase = bytes.toUpperCase();
+        long factor = switch (upperCase.isEmpty() ? ' ' : upperCase.charAt(upperCase.length() - 1)) {
+            case 'K' -> 1L << 10;
+            case 'M' -> 1L << 20;
+            case 'G' -> 1L << 30;
+            default -> 1;
+        };
+        String digits = factor == 1 ? upperCase : upperCase.substring(0, upperCase.length() - 1);
+        return Long.parseLong(digits) * factor;
     }
 }
@@ -0,0 +1,144 @@
+package projekt.io;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import projekt.base.EuclideanDistanceCalculator;
+import projekt.base.Location;
+import projekt.delivery.routing.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the serialization of the {@link PathCalculator} chains of {@link VehicleManager}s by {@link VehicleManagerIO}.
+ */
+public class VehicleManagerIOUnitTests {
+
+    private static Region region;
+
+    @BeforeAll
+    public static void initialize() {
+        region = Region.builder()
+            .distanceCalculator(new EuclideanDistanceCalculator())
+            .addRestaurant("A", new Location(0, 0), List.of("Pizza"))
+            .addRestaurant("B", new Location(3, 4), List.of("Pasta"))
+            .addEdge("AB", new Location(0, 0), new Location(3, 4))
+            .build();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        String[] specs = {
+            "DijkstraPathCalculator",
+            "IndexedDijkstraPathCalculator",
+            "AStarPathCalculator",
+            "BidirectionalDijkstraPathCalculator",
+            "ContractionHierarchiesPathCalculator",
+            "LandmarkPathCalculator",
+            "AllPairsPathCalculator",
+            "CachedPathCalculator,DijkstraPathCalculator",
+            "CachedPathCalculator(size=64),IndexedDijkstraPathCalculator",
+            "CachedPathCalculator(memory=1048576),AStarPathCalculator",
+            "CachedPathCalculator(memory=67108864;soft),CachedPathCalculator(size=8),DijkstraPathCalculator",
+        };
+        for (String spec : specs) {
+            assertEquals(spec, writeSpec(read(spec)), spec);
+        }
+    }
+
+    @Test
+    public void testNormalizedSpecs() {
+        assertEquals("CachedPathCalculator(memory=67108864;soft),DijkstraPathCalculator",
+            writeSpec(read(" CachedPathCalculator(memory=64M; soft) , DijkstraPathCalculator ")));
+        assertEquals("CachedPathCalculator(memory=2048),DijkstraPathCalculator",
+            writeSpec(read("CachedPathCalculator(memory=2k),DijkstraPathCalculator")));
+        assertEquals("CachedPathCalculator,DijkstraPathCalculator",
+            writeSpec(read("CachedPathCalculator(size=%d),DijkstraPathCalculator".formatted(CachedPathCalculator.DEFAULT_SIZE))));
+        assertEquals("DijkstraPathCalculator", writeSpec(read("DijkstraPathCalculator()")));
+    }
+
+    @Test
+    public void testParsedChain() {
+        PathCalculator pathCalculator = read("CachedPathCalculator(memory=1K;soft),CachedPathCalculator(size=5),LandmarkPathCalculator");
+
+        CachedPathCalculator outer = assertInstanceOf(CachedPathCalculator.class, pathCalculator);
+        assertEquals(1024, outer.getMemoryBudget());
+        assertTrue(outer.usesSoftReferences());
+        CachedPathCalculator inner = assertInstanceOf(CachedPathCalculator.class, outer.getDelegate());
+        assertEquals(5, inner.getSize());
+        assertInstanceOf(LandmarkPathCalculator.class, inner.getDelegate());
+    }
+
+    @Test
+    public void testRejectedSpecs() {
+        assertRejected("DijkstraPathCalculator,AStarPathCalculator", "cannot wrap AStarPathCalculator");
+        assertRejected("CachedPathCalculator,DijkstraPathCalculator,AStarPathCalculator", "cannot wrap AStarPathCalculator");
+        assertRejected("DijkstraPathCalculator(size=5)", "does not take parameters");
+        assertRejected("CachedPathCalculator", "needs a pathCalculator to wrap");
+        assertRejected("CachedPathCalculator(size=5),CachedPathCalculator", "needs a pathCalculator to wrap");
+        assertRejected("FloydWarshallPathCalculator", "unknown name");
+        assertRejected("CachedPathCalculator(size=5,DijkstraPathCalculator", "illegal parameters");
+    }
+
+    @Test
+    public void testRejectedParameters() {
+        assertThrows(RuntimeException.class, () -> read("CachedPathCalculator(weight=5),DijkstraPathCalculator"));
+        assertThrows(RuntimeException.class, () -> read("CachedPathCalculator(soft),DijkstraPathCalculator"));
+        assertThrows(RuntimeException.class, () -> read("CachedPathCalculator(size=five),DijkstraPathCalculator"));
+    }
+
+    @Test
+    public void testRejectedLines() {
+        assertThrows(RuntimeException.class, () -> VehicleManagerIO.readVehicleManager(
+            new BufferedReader(new StringReader("START VEHICLE MANAGER\nX\nEND VEHICLE MANAGER\n")), region));
+        assertThrows(RuntimeException.class, () -> VehicleManagerIO.readVehicleManager(
+            new BufferedReader(new StringReader("VEHICLE MANAGER\n")), region));
+    }
+
+    @Test
+    public void testVehicles() {
+        VehicleManager vehicleManager = VehicleManagerIO.readVehicleManager(new BufferedReader(new StringReader(
+            "START VEHICLE MANAGER\nV 0,0,2.5\nV 3,4,10.0\nP DijkstraPathCalculator\nEND VEHICLE MANAGER\n")), region);
+
+        assertEquals(2, vehicleManager.getAllVehicles().size());
+        assertEquals("START VEHICLE MANAGER\nV 0,0,2.5\nV 3,4,10.0\nP DijkstraPathCalculator\nEND VEHICLE MANAGER\n",
+            write(vehicleManager));
+    }
+
+    private static void assertRejected(String spec, String reason) {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> read(spec), spec);
+        IOException cause = assertInstanceOf(IOException.class, exception.getCause(), spec);
+        assertTrue(cause.getMessage().contains(reason), cause.getMessage());
+        assertTrue(cause.getMessage().contains(spec), cause.getMessage());
+    }
+
+    private static PathCalculator read(String spec) {
+        String serialized = "START VEHICLE MANAGER\nP %s\nEND VEHICLE MANAGER\n".formatted(spec);
+        return VehicleManagerIO.readVehicleManager(new BufferedReader(new StringReader(serialized)), region)
+            .getPathCalculator();
+    }
+
+    private static String writeSpec(PathCalculator pathCalculator) {
+        String serialized = write(VehicleManager.builder().region(region).pathCalculator(pathCalculator).build());
+        String prefix = "START VEHICLE MANAGER\nP ";
+        String suffix = "\nEND VEHICLE MANAGER\n";
+        assertTrue(serialized.startsWith(prefix) && serialized.endsWith(suffix), serialized);
+        return serialized.substring(prefix.length(), serialized.length() - suffix.length());
+    }
+
+    private static String write(VehicleManager vehicleManager) {
+        StringWriter writer = new StringWriter();
+        try (BufferedWriter bufferedWriter = new BufferedWriter(writer)) {
+            VehicleManagerIO.writeVehicleManager(bufferedWriter, vehicleManager);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return writer.toString();
+    }
+}